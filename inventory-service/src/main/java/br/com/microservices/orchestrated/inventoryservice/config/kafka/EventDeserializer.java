@@ -0,0 +1,28 @@
+package br.com.microservices.orchestrated.inventoryservice.config.kafka;
+
+import br.com.microservices.orchestrated.inventoryservice.core.dto.EventDto;
+import br.com.microservices.orchestrated.inventoryservice.core.utils.EventCodec;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Reads the event straight from the record bytes. Meant to be wrapped by an {@code ErrorHandlingDeserializer},
+ * which turns decoding failures into a header the container routes to the dead-letter topic.
+ */
+@RequiredArgsConstructor
+public class EventDeserializer implements Deserializer<EventDto> {
+
+    private final EventCodec eventCodec;
+
+    @Override
+    public EventDto deserialize(String topic, byte[] data) {
+        return deserialize(topic, new RecordHeaders(), data);
+    }
+
+    @Override
+    public EventDto deserialize(String topic, Headers headers, byte[] data) {
+        return data == null ? null : eventCodec.decode(data, headers);
+    }
+}
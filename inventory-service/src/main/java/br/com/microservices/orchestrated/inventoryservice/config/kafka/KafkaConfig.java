@@ -1,17 +1,34 @@
 package br.com.microservices.orchestrated.inventoryservice.config.kafka;
 
+import br.com.microservices.orchestrated.inventoryservice.config.exception.ValidationException;
+import br.com.microservices.orchestrated.inventoryservice.core.dto.EventDto;
+import br.com.microservices.orchestrated.inventoryservice.core.enums.EProducerProfile;
+import br.com.microservices.orchestrated.inventoryservice.core.metrics.SagaStepMetricsInterceptor;
+import br.com.microservices.orchestrated.inventoryservice.core.utils.EventCodec;
 import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultAfterRollbackProcessor;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationBuilder;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+import org.springframework.kafka.transaction.KafkaTransactionManager;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -21,18 +38,50 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class KafkaConfig {
 
-    private static final Integer PARTITION_COUNT = 1;
     private static final Integer REPLICA_COUNT = 1;
+    private static final String TOPIC_PARTITIONS_PROPERTY = "spring.kafka.partitions.";
+    private static final String DLT_SUFFIX = "-dlt";
+    private static final String RETRY_TOPIC_SUFFIX = "-retry-\\d+$";
+
+    private final Environment environment;
+    private final EventCodec eventCodec;
 
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Value("${spring.kafka.producer-profile}")
+    private EProducerProfile producerProfile;
+
+    @Value("${spring.kafka.exactly-once}")
+    private boolean exactlyOnce;
+
+    @Value("${spring.kafka.transaction-id-prefix}")
+    private String transactionIdPrefix;
+
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
     @Value("${spring.kafka.consumer.auto-offset-reset}")
     private String autoOffsetReset;
 
+    @Value("${spring.kafka.partitions.default}")
+    private Integer defaultPartitionCount;
+
+    @Value("${spring.kafka.listener.concurrency}")
+    private Integer listenerConcurrency;
+
+    @Value("${spring.kafka.retry.attempts}")
+    private Integer retryAttempts;
+
+    @Value("${spring.kafka.retry.initial-interval}")
+    private Long retryInitialInterval;
+
+    @Value("${spring.kafka.retry.multiplier}")
+    private Double retryMultiplier;
+
+    @Value("${spring.kafka.retry.max-interval}")
+    private Long retryMaxInterval;
+
     @Value("${spring.kafka.topic.orchestrator}")
     private String orchestratorTopic;
 
@@ -43,7 +92,7 @@ public class KafkaConfig {
     private String inventoryFailTopic;
 
     @Bean
-    public ConsumerFactory<String, String> consumerFactory() {
+    public ConsumerFactory<String, EventDto> consumerFactory() {
         return new DefaultKafkaConsumerFactory<>(consumerProps());
     }
 
@@ -51,38 +100,94 @@ public class KafkaConfig {
         var props = new HashMap<String, Object>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
-        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, autoOffsetReset);
+        if (exactlyOnce) {
+            props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+        }
         return props;
     }
 
     @Bean
-    public ProducerFactory<String, String> producerFactory() {
-        return new DefaultKafkaProducerFactory<>(producerProps());
+    public ConcurrentKafkaListenerContainerFactory<String, EventDto> kafkaListenerContainerFactory(
+            ConsumerFactory<String, EventDto> consumerFactory, ProducerFactory<String, Object> producerFactory,
+            KafkaTemplate<String, Object> kafkaTemplate, SagaStepMetricsInterceptor sagaStepMetricsInterceptor) {
+        var factory = new ConcurrentKafkaListenerContainerFactory<String, EventDto>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setConcurrency(listenerConcurrency);
+        factory.setRecordInterceptor(sagaStepMetricsInterceptor);
+        if (exactlyOnce) {
+            factory.getContainerProperties().setTransactionManager(new KafkaTransactionManager<>(producerFactory));
+            factory.setAfterRollbackProcessor(afterRollbackProcessor(kafkaTemplate));
+        }
+        return factory;
+    }
+
+    // with a transaction manager failures skip the retry topics' error handler and reach this processor instead:
+    // the record is retried in place with the same backoff, blocking its partition meanwhile, then published to
+    // the DLT inside the transaction
+    private DefaultAfterRollbackProcessor<String, EventDto> afterRollbackProcessor(
+            KafkaTemplate<String, Object> kafkaTemplate) {
+        var backOff = new ExponentialBackOffWithMaxRetries(retryAttempts - 1);
+        backOff.setInitialInterval(retryInitialInterval);
+        backOff.setMultiplier(retryMultiplier);
+        backOff.setMaxInterval(retryMaxInterval);
+        var recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate, (record, ex) -> new TopicPartition(
+                record.topic().replaceFirst(RETRY_TOPIC_SUFFIX, "").concat(DLT_SUFFIX), -1));
+        var processor = new DefaultAfterRollbackProcessor<String, EventDto>(recoverer, backOff, kafkaTemplate, true);
+        processor.addNotRetryableExceptions(ValidationException.class);
+        return processor;
+    }
+
+    @Bean
+    public ProducerFactory<String, Object> producerFactory() {
+        var producerFactory = new DefaultKafkaProducerFactory<String, Object>(producerProps(), new StringSerializer(),
+                new DelegatingByTypeSerializer(Map.of(
+                        byte[].class, new ByteArraySerializer(),
+                        EventDto.class, new EventSerializer(eventCodec))));
+        if (exactlyOnce) {
+            producerFactory.setTransactionIdPrefix(transactionIdPrefix);
+        }
+        return producerFactory;
     }
 
     private Map<String, Object> producerProps() {
         var props = new HashMap<String, Object>();
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.putAll(producerProfile.getProperties());
         return props;
     }
 
     @Bean
-    public KafkaTemplate<String, String> kafkaTemplate(ProducerFactory<String, String> producerFactory) {
+    public KafkaTemplate<String, Object> kafkaTemplate(ProducerFactory<String, Object> producerFactory) {
         return new KafkaTemplate<>(producerFactory);
     }
 
+    @Bean
+    public RetryTopicConfiguration retryTopicConfiguration(KafkaTemplate<String, Object> kafkaTemplate) {
+        return RetryTopicConfigurationBuilder
+                .newInstance()
+                .maxAttempts(retryAttempts)
+                .exponentialBackoff(retryInitialInterval, retryMultiplier, retryMaxInterval)
+                .notRetryOn(ValidationException.class)
+                .traversingCauses()
+                .suffixTopicsWithIndexValues()
+                .dltSuffix(DLT_SUFFIX)
+                .autoCreateTopicsWith(defaultPartitionCount, REPLICA_COUNT.shortValue())
+                .create(kafkaTemplate);
+    }
+
     private NewTopic buildTopic(String name) {
         return TopicBuilder
                 .name(name)
-                .partitions(PARTITION_COUNT)
+                .partitions(partitionCountOf(name))
                 .replicas(REPLICA_COUNT)
                 .build();
     }
 
+    private Integer partitionCountOf(String name) {
+        return environment.getProperty(TOPIC_PARTITIONS_PROPERTY.concat(name), Integer.class, defaultPartitionCount);
+    }
+
     @Bean
     public NewTopic orchestratorTopic() {
         return buildTopic(orchestratorTopic);
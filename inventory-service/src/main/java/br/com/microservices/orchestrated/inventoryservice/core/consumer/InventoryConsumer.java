@@ -1,37 +1,41 @@
 package br.com.microservices.orchestrated.inventoryservice.core.consumer;
 
+import br.com.microservices.orchestrated.inventoryservice.core.dto.EventDto;
 import br.com.microservices.orchestrated.inventoryservice.core.service.InventoryService;
-import br.com.microservices.orchestrated.inventoryservice.core.utils.JsonUtil;
+import br.com.microservices.orchestrated.inventoryservice.core.utils.SagaLogger;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 
-@Slf4j
 @Component
 @RequiredArgsConstructor
 public class InventoryConsumer {
 
     private final InventoryService inventoryService;
-    private final JsonUtil jsonUtil;
+    private final SagaLogger sagaLogger;
 
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
             topics = "${spring.kafka.topic.inventory-success}"
     )
-    public void consumeSuccessEvent(String payload) {
-        log.info("Receiving success event {} from inventory-success topic", payload);
-        var event = jsonUtil.toEvent(payload);
-        inventoryService.updateInventory(event);
+    public void consumeSuccessEvent(EventDto event, @Header(KafkaHeaders.RECEIVED_TOPIC) String topic) {
+        sagaLogger.receiving(topic, event);
+        try {
+            inventoryService.updateInventory(event);
+        } catch (DataIntegrityViolationException e) {
+            inventoryService.resendInventory(event);
+        }
     }
 
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
             topics = "${spring.kafka.topic.inventory-fail}"
     )
-    public void consumeFailEvent(String payload) {
-        log.info("Receiving rollback event {} from inventory-fail topic", payload);
-        var event = jsonUtil.toEvent(payload);
+    public void consumeFailEvent(EventDto event, @Header(KafkaHeaders.RECEIVED_TOPIC) String topic) {
+        sagaLogger.receiving(topic, event);
         inventoryService.rollbackInventory(event);
     }
 }
@@ -0,0 +1,35 @@
+package br.com.microservices.orchestrated.inventoryservice.core.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.apache.kafka.clients.producer.ProducerConfig;
+
+import java.util.Map;
+
+/**
+ * Producer settings selected by {@code spring.kafka.producer-profile}. Both profiles are idempotent with
+ * {@code acks=all}; {@link #LATENCY} sends almost immediately with lz4, {@link #THROUGHPUT} waits to fill
+ * larger zstd batches.
+ */
+@Getter
+@AllArgsConstructor
+public enum EProducerProfile {
+
+    LATENCY(Map.of(
+            ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true,
+            ProducerConfig.ACKS_CONFIG, "all",
+            ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5,
+            ProducerConfig.LINGER_MS_CONFIG, 1,
+            ProducerConfig.BATCH_SIZE_CONFIG, 32768,
+            ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4")),
+    THROUGHPUT(Map.of(
+            ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true,
+            ProducerConfig.ACKS_CONFIG, "all",
+            ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5,
+            ProducerConfig.LINGER_MS_CONFIG, 20,
+            ProducerConfig.BATCH_SIZE_CONFIG, 262144,
+            ProducerConfig.BUFFER_MEMORY_CONFIG, 67108864L,
+            ProducerConfig.COMPRESSION_TYPE_CONFIG, "zstd"));
+
+    private final Map<String, Object> properties;
+}
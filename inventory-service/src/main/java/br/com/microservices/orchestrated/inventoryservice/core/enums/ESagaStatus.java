@@ -2,6 +2,6 @@ package br.com.microservices.orchestrated.inventoryservice.core.enums;
 
 public enum ESagaStatus {
     SUCCESS,
-    ROLLBACK_PENDInG,
+    ROLLBACK_PENDING,
     FAIL;
 }
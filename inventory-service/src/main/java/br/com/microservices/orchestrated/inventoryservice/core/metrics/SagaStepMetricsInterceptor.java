@@ -0,0 +1,52 @@
+package br.com.microservices.orchestrated.inventoryservice.core.metrics;
+
+import br.com.microservices.orchestrated.inventoryservice.core.dto.EventDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.listener.RecordInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@RequiredArgsConstructor
+public class SagaStepMetricsInterceptor implements RecordInterceptor<String, EventDto> {
+
+    private final Map<String, Timer> queueTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> processingTimers = new ConcurrentHashMap<>();
+    private final ThreadLocal<Long> startedAt = new ThreadLocal<>();
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public ConsumerRecord<String, EventDto> intercept(ConsumerRecord<String, EventDto> record,
+                                                      Consumer<String, EventDto> consumer) {
+        if (record.timestamp() > 0) {
+            timer(queueTimers, "saga.participant.queue", record.topic())
+                    .record(System.currentTimeMillis() - record.timestamp(), TimeUnit.MILLISECONDS);
+        }
+        startedAt.set(System.nanoTime());
+        return record;
+    }
+
+    @Override
+    public void afterRecord(ConsumerRecord<String, EventDto> record, Consumer<String, EventDto> consumer) {
+        var start = startedAt.get();
+        if (start != null) {
+            startedAt.remove();
+            timer(processingTimers, "saga.participant.processing", record.topic())
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(Map<String, Timer> timers, String name, String topic) {
+        return timers.computeIfAbsent(topic, key -> Timer
+                .builder(name)
+                .tag("step", key)
+                .register(meterRegistry));
+    }
+}
@@ -13,7 +13,7 @@ import java.time.LocalDateTime;
 @Entity
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "order_inventory")
+@Table(name = "order_inventory", uniqueConstraints = @UniqueConstraint(columnNames = {"orderId", "transactionId", "inventory_id"}))
 public class OrderInventory {
 
     @Id
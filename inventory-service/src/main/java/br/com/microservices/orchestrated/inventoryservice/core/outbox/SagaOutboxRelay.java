@@ -0,0 +1,109 @@
+package br.com.microservices.orchestrated.inventoryservice.core.outbox;
+
+import br.com.microservices.orchestrated.inventoryservice.config.exception.ValidationException;
+import br.com.microservices.orchestrated.inventoryservice.core.dto.EventDto;
+import br.com.microservices.orchestrated.inventoryservice.core.model.SagaOutbox;
+import br.com.microservices.orchestrated.inventoryservice.core.producer.KafkaProducer;
+import br.com.microservices.orchestrated.inventoryservice.core.repository.SagaOutboxRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Outbox for the events sent to the orchestrator. Events are added in the transaction that writes the business
+ * rows; the relay locks the oldest entries with {@code FOR UPDATE SKIP LOCKED}, so every instance drains a
+ * different batch, sends them, and deletes the acknowledged ones in the same transaction. In exactly-once mode the
+ * outbox is bypassed: the event is sent in the Kafka transaction of the listener that produced it.
+ */
+@Slf4j
+@Component
+public class SagaOutboxRelay {
+
+    private final SagaOutboxRepository sagaOutboxRepository;
+    private final KafkaProducer kafkaProducer;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final boolean exactlyOnce;
+
+    public SagaOutboxRelay(SagaOutboxRepository sagaOutboxRepository, KafkaProducer kafkaProducer,
+                           ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                           @Value("${saga.outbox.batch-size}") int batchSize,
+                           @Value("${spring.kafka.exactly-once}") boolean exactlyOnce) {
+        this.sagaOutboxRepository = sagaOutboxRepository;
+        this.kafkaProducer = kafkaProducer;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.exactlyOnce = exactlyOnce;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void add(EventDto event) {
+        if (exactlyOnce) {
+            var delivery = kafkaProducer.sendEvent(event, event.getTransactionId());
+            if (delivery.isCompletedExceptionally()) {
+                // never reached the transactional producer, so fail the listener and let the retry topics redeliver
+                delivery.join();
+            }
+            return;
+        }
+        try {
+            sagaOutboxRepository.save(SagaOutbox
+                    .builder()
+                    .transactionId(event.getTransactionId())
+                    .payload(objectMapper.writeValueAsString(event))
+                    .build());
+        } catch (Exception e) {
+            log.error("Error adding event of transactionId {} to the outbox", event.getTransactionId(), e);
+            throw new ValidationException("Event could not be added to the outbox.");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${saga.outbox.poll-interval}")
+    public void relay() {
+        if (exactlyOnce) {
+            return;
+        }
+        while (Boolean.TRUE.equals(transactionTemplate.execute(status -> publishBatch()))) {
+            log.debug("Outbox batch of {} entries relayed, draining the next one", batchSize);
+        }
+    }
+
+    private boolean publishBatch() {
+        var batch = sagaOutboxRepository.lockBatch(batchSize);
+        var deliveries = batch.stream().map(this::send).toList();
+        var published = new ArrayList<SagaOutbox>(batch.size());
+        for (var index = 0; index < batch.size(); index++) {
+            try {
+                deliveries.get(index).join();
+                published.add(batch.get(index));
+            } catch (CompletionException e) {
+                log.warn("Outbox entry of transactionId {} was not published, retrying on the next poll",
+                        batch.get(index).getTransactionId());
+            }
+        }
+        sagaOutboxRepository.deleteAllInBatch(published);
+        return batch.size() == batchSize && published.size() == batchSize;
+    }
+
+    private CompletableFuture<?> send(SagaOutbox entry) {
+        try {
+            return kafkaProducer.sendEvent(objectMapper.readValue(entry.getPayload(), EventDto.class),
+                    entry.getTransactionId());
+        } catch (Exception e) {
+            log.error("Error reading outbox entry {} of transactionId {}", entry.getId(), entry.getTransactionId(), e);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
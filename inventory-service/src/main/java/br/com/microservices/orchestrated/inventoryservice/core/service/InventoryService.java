@@ -7,13 +7,15 @@ import br.com.microservices.orchestrated.inventoryservice.core.dto.OrderDto;
 import br.com.microservices.orchestrated.inventoryservice.core.dto.OrderProductsDto;
 import br.com.microservices.orchestrated.inventoryservice.core.model.Inventory;
 import br.com.microservices.orchestrated.inventoryservice.core.model.OrderInventory;
-import br.com.microservices.orchestrated.inventoryservice.core.producer.KafkaProducer;
+import br.com.microservices.orchestrated.inventoryservice.core.outbox.SagaOutboxRelay;
 import br.com.microservices.orchestrated.inventoryservice.core.repository.InventoryRepository;
 import br.com.microservices.orchestrated.inventoryservice.core.repository.OrderInventoryRepository;
-import br.com.microservices.orchestrated.inventoryservice.core.utils.JsonUtil;
-import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 
@@ -21,31 +23,58 @@ import static br.com.microservices.orchestrated.inventoryservice.core.enums.ESag
 
 @Slf4j
 @Service
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class InventoryService {
 
     private static final String CURRENT_SOURCE = "INVENTORY_SERVICE";
 
-    private final JsonUtil jsonUtil;
-    private final KafkaProducer producer;
+    private final SagaOutboxRelay sagaOutboxRelay;
     private final InventoryRepository inventoryRepository;
     private final OrderInventoryRepository orderInventoryRepository;
 
+    @Value("${spring.kafka.exactly-once}")
+    private boolean exactlyOnce;
+
+    @Transactional
     public void updateInventory(EventDto eventDto) {
         try {
             checkCurrentValidation(eventDto);
             createOrderInventory(eventDto);
             updateInventory(eventDto.getPayload());
             handleSuccess(eventDto);
+        } catch (DataIntegrityViolationException ex) {
+            // the reservation is already stored and this transaction is rollback-only, see resendInventory
+            throw ex;
         } catch (Exception ex) {
             log.error("Error trying to update inventory: ", ex);
             handleFailCurrentNotExecuted(eventDto, ex.getMessage());
         }
-        producer.sendEvent(jsonUtil.toJson(eventDto));
+        sagaOutboxRelay.add(eventDto);
+    }
+
+    /**
+     * Answers a redelivered event whose reservation was already committed, which exactly-once mode detects through
+     * the unique constraint instead of a lookup. The stored rows tell the outcome: the stock was only taken when
+     * every product has a row and none of them went below zero.
+     */
+    @Transactional
+    public void resendInventory(EventDto eventDto) {
+        var orderInventories = orderInventoryRepository
+                .findByOrderIdAndTransactionId(eventDto.getPayload().getId(), eventDto.getTransactionId());
+        var updated = orderInventories.size() == eventDto.getPayload().getProducts().size()
+                && orderInventories.stream().allMatch(orderInventory -> orderInventory.getNewQuantity() >= 0);
+        if (updated) {
+            handleSuccess(eventDto);
+        } else {
+            handleFailCurrentNotExecuted(eventDto, "inventory was already attempted and not updated");
+        }
+        log.info("Resending stored inventory outcome {} of transactionId {}",
+                eventDto.getStatus(), eventDto.getTransactionId());
+        sagaOutboxRelay.add(eventDto);
     }
 
     private void checkCurrentValidation(EventDto eventDto) {
-        if (orderInventoryRepository.existsByOrderIdAndTransactionId(
+        if (!exactlyOnce && orderInventoryRepository.existsByOrderIdAndTransactionId(
                 eventDto.getPayload().getId(), eventDto.getTransactionId())) {
             throw new ValidationException("There's another transactionId for this validation.");
         }
@@ -109,11 +138,12 @@ public class InventoryService {
     }
 
     private void handleFailCurrentNotExecuted(EventDto eventDto, String message) {
-        eventDto.setStatus(ROLLBACK_PENDInG);
+        eventDto.setStatus(ROLLBACK_PENDING);
         eventDto.setSource(CURRENT_SOURCE);
         addHistory(eventDto, "Fail to update inventory: ".concat(message));
     }
 
+    @Transactional
     public void rollbackInventory(EventDto eventDto) {
         eventDto.setStatus(FAIL);
         eventDto.setSource(CURRENT_SOURCE);
@@ -123,7 +153,7 @@ public class InventoryService {
         } catch (Exception ex) {
             addHistory(eventDto, "Rollback not executed for inventory: ".concat(ex.getMessage()));
         }
-        producer.sendEvent(jsonUtil.toJson(eventDto));
+        sagaOutboxRelay.add(eventDto);
     }
 
     private void returnInventoryToPreviousValues(EventDto eventDto) {
@@ -0,0 +1,117 @@
+package br.com.microservices.orchestrated.inventoryservice.core.utils;
+
+import br.com.microservices.orchestrated.inventoryservice.config.exception.ValidationException;
+import br.com.microservices.orchestrated.inventoryservice.core.dto.EventDto;
+import br.com.microservices.orchestrated.inventoryservice.core.dto.HistoryDto;
+import br.com.microservices.orchestrated.inventoryservice.core.enums.EEventCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes events with the configured codec and stamps the codec and schema version as record headers.
+ * Records without a codec header are read as JSON, so producers that predate the headers keep working.
+ * The saga headers let the orchestrator route a reply without decoding its body; the history entry of an
+ * event it forwarded travels in {@link #HISTORY_HEADER} and is folded back into the event history here.
+ */
+@Slf4j
+@Component
+public class EventCodec {
+
+    public static final String CODEC_HEADER = "saga-codec";
+    public static final String SCHEMA_VERSION_HEADER = "saga-schema-version";
+    public static final String TRANSACTION_ID_HEADER = "saga-transaction-id";
+    public static final String ORDER_ID_HEADER = "saga-order-id";
+    public static final String SOURCE_HEADER = "saga-source";
+    public static final String STATUS_HEADER = "saga-status";
+    public static final String HISTORY_HEADER = "saga-history";
+    public static final int SCHEMA_VERSION = 2;
+
+    private final Map<EEventCodec, ObjectMapper> mappers = new EnumMap<>(EEventCodec.class);
+    private final List<Header> headers;
+
+    @Getter
+    private final EEventCodec codec;
+
+    public EventCodec(ObjectMapper objectMapper, @Value("${spring.kafka.codec}") EEventCodec codec) {
+        var compactMapper = CompactHistory.register(objectMapper);
+        this.codec = codec;
+        this.mappers.put(EEventCodec.JSON, compactMapper);
+        this.mappers.put(EEventCodec.SMILE, compactMapper.copyWith(SmileFactory
+                .builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build()));
+        this.headers = List.of(
+                new RecordHeader(CODEC_HEADER, codec.name().getBytes(StandardCharsets.UTF_8)),
+                new RecordHeader(SCHEMA_VERSION_HEADER, String.valueOf(SCHEMA_VERSION).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public byte[] encode(Object value) {
+        try {
+            return mappers.get(codec).writeValueAsBytes(value);
+        } catch (Exception e) {
+            log.error("Error encoding event with codec {}", codec, e);
+            throw new ValidationException("Event could not be encoded.");
+        }
+    }
+
+    public void writeHeaders(Headers recordHeaders, EventDto event) {
+        recordHeaders
+                .remove(CODEC_HEADER)
+                .remove(SCHEMA_VERSION_HEADER)
+                .remove(TRANSACTION_ID_HEADER)
+                .remove(ORDER_ID_HEADER)
+                .remove(SOURCE_HEADER)
+                .remove(STATUS_HEADER)
+                .remove(HISTORY_HEADER);
+        headers.forEach(recordHeaders::add);
+        addHeader(recordHeaders, TRANSACTION_ID_HEADER, event.getTransactionId());
+        addHeader(recordHeaders, ORDER_ID_HEADER, event.getOrderId());
+        addHeader(recordHeaders, SOURCE_HEADER, event.getSource());
+        addHeader(recordHeaders, STATUS_HEADER, event.getStatus() == null ? null : event.getStatus().name());
+    }
+
+    public EventDto decode(byte[] payload, Headers recordHeaders) {
+        try {
+            var version = headerValue(recordHeaders, SCHEMA_VERSION_HEADER);
+            if (version != null && Integer.parseInt(version) > SCHEMA_VERSION) {
+                throw new ValidationException("Unsupported event schema version ".concat(version));
+            }
+            var codecName = headerValue(recordHeaders, CODEC_HEADER);
+            var mapper = mappers.get(codecName == null ? EEventCodec.JSON : EEventCodec.valueOf(codecName));
+            var event = mapper.readValue(payload, EventDto.class);
+            for (var history : recordHeaders.headers(HISTORY_HEADER)) {
+                event.addHistory(mapper.readValue(history.value(), HistoryDto.class));
+            }
+            return event;
+        } catch (ValidationException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error decoding event", e);
+            throw new ValidationException("Event payload could not be read.");
+        }
+    }
+
+    private void addHeader(Headers recordHeaders, String name, String value) {
+        if (value != null) {
+            recordHeaders.add(name, value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private String headerValue(Headers recordHeaders, String name) {
+        var header = recordHeaders.lastHeader(name);
+        return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+}
@@ -1,32 +0,0 @@
-package br.com.microservices.orchestrated.inventoryservice.core.utils;
-
-import br.com.microservices.orchestrated.inventoryservice.core.dto.EventDto;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.AllArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Component;
-
-@Slf4j
-@Component
-@AllArgsConstructor
-public class JsonUtil {
-
-    private final ObjectMapper objectMapper;
-
-    public String toJson(Object object) {
-        try {
-            return objectMapper.writeValueAsString(object);
-        } catch (Exception e) {
-            log.error("Error converting object to json", e);
-            return "";
-        }
-    }
-    public EventDto toEvent(String json) {
-        try {
-            return objectMapper.readValue(json, EventDto.class);
-        } catch (Exception e) {
-            log.error("Error converting json to object", e);
-            return null;
-        }
-    }
-}
@@ -0,0 +1,141 @@
+"""Ramps closed-loop POST /api/order load on the order-service and reports the max sustained throughput.
+
+Compare virtual and platform threads by running it twice against the same stack:
+
+    SPRING_THREADS_VIRTUAL_ENABLED=false  ->  python load_test.py
+    SPRING_THREADS_VIRTUAL_ENABLED=true   ->  python load_test.py
+
+Each step spreads its connections over --processes client processes (one per core by default), so the GIL of a
+single interpreter does not cap the request rate. Every process aggregates its own latency histogram and CPU time;
+a step where a client process was busy for 90% or more of the step is marked client-bound and is not counted as
+sustained, because its throughput measures the client, not the service. Run the client on a different host than
+the order-service, or at least on cores it does not use.
+
+No virtual-vs-platform results have been recorded yet: the comparison needs the order-service on JDK 21
+with Mongo and Kafka running, and it has not been run against that stack.
+"""
+import argparse
+import http.client
+import json
+import multiprocessing
+import os
+import threading
+import time
+from collections import Counter
+from urllib.parse import urlparse
+
+ORDER = json.dumps({
+    "products": [
+        {"product": {"code": "COMIC_BOOKS", "unitValue": 15.50}, "quantity": 3},
+        {"product": {"code": "BOOKS", "unitValue": 9.90}, "quantity": 1}
+    ]
+}).encode("utf-8")
+
+# latencies are counted in 0.1 ms buckets so every process can ship a small histogram instead of raw samples
+BUCKETS_PER_MS = 10
+CLIENT_BOUND_CPU_SHARE = 0.9
+
+
+def send_orders(url, deadline, latencies, errors):
+    target = urlparse(url)
+    connection = http.client.HTTPConnection(target.hostname, target.port, timeout=30)
+    while time.monotonic() < deadline:
+        start = time.monotonic()
+        try:
+            connection.request("POST", target.path, ORDER, {"Content-Type": "application/json"})
+            response = connection.getresponse()
+            response.read()
+            if response.status == 200:
+                latencies[int((time.monotonic() - start) * 1000 * BUCKETS_PER_MS)] += 1
+            else:
+                errors[response.status] += 1
+        except Exception as e:
+            errors[type(e).__name__] += 1
+            connection.close()
+            connection = http.client.HTTPConnection(target.hostname, target.port, timeout=30)
+    connection.close()
+
+
+def run_client(task):
+    url, connections, deadline = task
+    cpu_start = time.process_time()
+    wall_start = time.monotonic()
+    counters = [(Counter(), Counter()) for _ in range(connections)]
+    workers = [threading.Thread(target=send_orders, args=(url, deadline, latencies, errors))
+               for latencies, errors in counters]
+    for worker in workers:
+        worker.start()
+    for worker in workers:
+        worker.join()
+    latencies, errors = Counter(), Counter()
+    for thread_latencies, thread_errors in counters:
+        latencies.update(thread_latencies)
+        errors.update(thread_errors)
+    return latencies, errors, (time.process_time() - cpu_start) / (time.monotonic() - wall_start)
+
+
+def percentile(histogram, fraction):
+    total = sum(histogram.values())
+    if total == 0:
+        return 0.0
+    rank = min(total - 1, int(total * fraction))
+    seen = 0
+    for bucket in sorted(histogram):
+        seen += histogram[bucket]
+        if seen > rank:
+            return bucket / BUCKETS_PER_MS
+    return 0.0
+
+
+def run_step(url, concurrency, duration, processes):
+    processes = min(processes, concurrency)
+    deadline = time.monotonic() + duration
+    tasks = [(url, concurrency // processes + (1 if index < concurrency % processes else 0), deadline)
+             for index in range(processes)]
+    with multiprocessing.Pool(processes) as pool:
+        results = pool.map(run_client, tasks)
+    latencies, errors = Counter(), Counter()
+    for client_latencies, client_errors, _ in results:
+        latencies.update(client_latencies)
+        errors.update(client_errors)
+    succeeded, failed = sum(latencies.values()), sum(errors.values())
+    return {
+        "concurrency": concurrency,
+        "orders_per_second": succeeded / duration,
+        "p50_ms": percentile(latencies, 0.50),
+        "p99_ms": percentile(latencies, 0.99),
+        "error_rate": failed / max(1, succeeded + failed),
+        "client_cpu": max(cpu_share for _, _, cpu_share in results)
+    }
+
+
+def run_load_test(url, steps, duration, p99_slo_ms, processes):
+    print("Load testing {} for {}s per step from {} client processes".format(url, duration, processes))
+    sustained = None
+    for concurrency in steps:
+        result = run_step(url, concurrency, duration, processes)
+        within_slo = result["p99_ms"] <= p99_slo_ms and result["error_rate"] < 0.01
+        client_bound = result["client_cpu"] >= CLIENT_BOUND_CPU_SHARE
+        print("concurrency {concurrency:>5}: {orders_per_second:>9.1f} orders/s  p50 {p50_ms:>8.1f} ms  "
+              "p99 {p99_ms:>8.1f} ms  errors {error_rate:>6.2%}  client cpu {client_cpu:>4.0%}".format(**result)
+              + ("" if within_slo else "  (over SLO)")
+              + ("  (client-bound)" if client_bound else ""))
+        if within_slo and not client_bound and (sustained is None or result["orders_per_second"] > sustained["orders_per_second"]):
+            sustained = result
+    if sustained is None:
+        print("No step stayed within p99 {} ms and 1% errors without saturating the client".format(p99_slo_ms))
+    else:
+        print("Max sustained: {orders_per_second:.1f} orders/s at concurrency {concurrency} "
+              "(p99 {p99_ms:.1f} ms)".format(**sustained))
+
+
+if __name__ == "__main__":
+    parser = argparse.ArgumentParser(description="Ramps concurrent POST /api/order load on the order-service.")
+    parser.add_argument("--url", default="http://localhost:3000/api/order")
+    parser.add_argument("--steps", default="50,100,200,400,800")
+    parser.add_argument("--duration", type=int, default=30)
+    parser.add_argument("--p99-slo-ms", type=float, default=500)
+    parser.add_argument("--processes", type=int, default=os.cpu_count())
+    args = parser.parse_args()
+    run_load_test(args.url, [int(step) for step in args.steps.split(",")], args.duration, args.p99_slo_ms,
+                  args.processes)
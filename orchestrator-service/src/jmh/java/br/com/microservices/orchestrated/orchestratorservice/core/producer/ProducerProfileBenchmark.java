@@ -0,0 +1,121 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.producer;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Event;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.History;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Order;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventCodec;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EProducerProfile;
+import br.com.microservices.orchestrated.orchestratorservice.core.utils.EventCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.ORCHESTRATOR;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus.SUCCESS;
+
+/**
+ * Producer throughput of the {@link EProducerProfile} settings against the client defaults, sending Smile saga
+ * events to a single-partition topic on an embedded broker. Each invocation sends {@value #RECORDS} records keyed
+ * over {@value #TRANSACTIONS} transactions and flushes. The bytes the producer put on the wire per record are
+ * printed when the trial ends.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ProducerProfileBenchmark {
+
+    private static final String TOPIC = "producer-profile-benchmark";
+    private static final String DEFAULTS = "DEFAULTS";
+    private static final int RECORDS = 50_000;
+    private static final int TRANSACTIONS = 5_000;
+
+    @Param({DEFAULTS, "LATENCY", "THROUGHPUT"})
+    private String profile;
+
+    private EmbeddedKafkaBroker broker;
+    private KafkaProducer<String, byte[]> producer;
+    private String[] keys;
+    private byte[][] payloads;
+    private long sent;
+
+    @Setup
+    public void setup() {
+        broker = new EmbeddedKafkaBroker(1, false, 1, TOPIC);
+        broker.afterPropertiesSet();
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        if (!DEFAULTS.equals(profile)) {
+            props.putAll(EProducerProfile.valueOf(profile).getProperties());
+        }
+        producer = new KafkaProducer<>(props, new StringSerializer(), new ByteArraySerializer());
+        var codec = new EventCodec(Jackson2ObjectMapperBuilder.json().build(), new SimpleMeterRegistry(), EEventCodec.SMILE);
+        keys = new String[TRANSACTIONS];
+        payloads = new byte[TRANSACTIONS][];
+        for (var index = 0; index < TRANSACTIONS; index++) {
+            keys[index] = UUID.randomUUID().toString();
+            payloads[index] = codec.encode(event(keys[index]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void send() {
+        for (var index = 0; index < RECORDS; index++) {
+            producer.send(new ProducerRecord<>(TOPIC, keys[index % TRANSACTIONS], payloads[index % TRANSACTIONS]));
+        }
+        producer.flush();
+        sent += RECORDS;
+    }
+
+    @TearDown
+    public void tearDown() {
+        var outgoingBytes = producer
+                .metrics()
+                .entrySet()
+                .stream()
+                .filter(metric -> "producer-metrics".equals(metric.getKey().group())
+                        && "outgoing-byte-total".equals(metric.getKey().name()))
+                .mapToDouble(metric -> (double) metric.getValue().metricValue())
+                .sum();
+        System.out.printf("%s: %d records, %.0f bytes on the wire per record, %d bytes per payload%n",
+                profile, sent, outgoingBytes / sent, payloads[0].length);
+        producer.close();
+        broker.destroy();
+    }
+
+    private Event event(String transactionId) {
+        var event = Event
+                .builder()
+                .id(UUID.randomUUID().toString())
+                .transactionId(transactionId)
+                .orderId(transactionId.substring(0, 24))
+                .payload(Order.builder().id(transactionId.substring(0, 24)).transactionId(transactionId).build())
+                .source(ORCHESTRATOR)
+                .status(SUCCESS)
+                .createdAt(LocalDateTime.now())
+                .build();
+        event.addHistory(History
+                .builder()
+                .source(ORCHESTRATOR)
+                .status(SUCCESS)
+                .message("Saga started!")
+                .createdAt(LocalDateTime.now())
+                .build());
+        return event;
+    }
+}
@@ -0,0 +1,68 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.utils;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Event;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.header.Headers;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics.BASE_ORCHESTRATOR;
+
+/**
+ * Decoding a consumed saga record. {@code stringJson} is the path the listeners had before the deserializer
+ * moved into Kafka: the value read as a String and parsed with the Boot ObjectMapper. The other two decode the
+ * record bytes with {@link EventCodec}. Run with {@code -PjmhProfilers=gc} for the bytes allocated per record.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventDecodeBenchmark {
+
+    @Param("5")
+    private int historyEntries;
+
+    private ObjectMapper objectMapper;
+    private EventCodec jsonCodec;
+    private EventCodec smileCodec;
+    private byte[] legacyJson;
+    private byte[] json;
+    private Headers jsonHeaders;
+    private byte[] smile;
+    private Headers smileHeaders;
+
+    @Setup
+    public void setup() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        jsonCodec = new EventCodec(objectMapper, new SimpleMeterRegistry(), EEventCodec.JSON);
+        smileCodec = new EventCodec(objectMapper, new SimpleMeterRegistry(), EEventCodec.SMILE);
+        var event = SagaEvents.event(historyEntries);
+        legacyJson = objectMapper.writeValueAsBytes(event);
+        json = jsonCodec.encode(event);
+        jsonHeaders = jsonCodec.toRecord(BASE_ORCHESTRATOR.getTopic(), event, json).headers();
+        smile = smileCodec.encode(event);
+        smileHeaders = smileCodec.toRecord(BASE_ORCHESTRATOR.getTopic(), event, smile).headers();
+    }
+
+    @Benchmark
+    public Event stringJson() throws Exception {
+        return objectMapper.readValue(new String(legacyJson, StandardCharsets.UTF_8), Event.class);
+    }
+
+    @Benchmark
+    public Event bytesJson() {
+        return jsonCodec.decode(json, jsonHeaders);
+    }
+
+    @Benchmark
+    public Event bytesSmile() {
+        return smileCodec.decode(smile, smileHeaders);
+    }
+}
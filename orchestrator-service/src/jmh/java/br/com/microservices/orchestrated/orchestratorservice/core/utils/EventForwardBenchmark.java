@@ -0,0 +1,64 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.utils;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.History;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Headers;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.ORCHESTRATOR;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics.BASE_ORCHESTRATOR;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics.PAYMENT_SUCCESS;
+
+/**
+ * One orchestrator hop of a participant reply: forwarding its bytes by the saga headers against decoding it,
+ * appending the routed history entry and encoding it again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventForwardBenchmark {
+
+    @Param("3")
+    private int historyEntries;
+
+    private EventCodec codec;
+    private byte[] payload;
+    private Headers headers;
+    private History routed;
+
+    @Setup
+    public void setup() {
+        codec = new EventCodec(Jackson2ObjectMapperBuilder.json().build(), new SimpleMeterRegistry(), EEventCodec.SMILE);
+        var event = SagaEvents.event(historyEntries);
+        payload = codec.encode(event);
+        headers = codec.toRecord(BASE_ORCHESTRATOR.getTopic(), event, payload).headers();
+        routed = History
+                .builder()
+                .source(ORCHESTRATOR)
+                .status(event.getStatus())
+                .message("Saga routed to topics ".concat(PAYMENT_SUCCESS.getTopic()))
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Benchmark
+    public ProducerRecord<String, Object> forwardByHeaders() {
+        return codec.forward(PAYMENT_SUCCESS.getTopic(), codec.envelope(payload, headers), routed);
+    }
+
+    @Benchmark
+    public ProducerRecord<String, Object> decodeAndEncode() {
+        var event = codec.decode(payload, headers);
+        event.addHistory(routed);
+        return codec.toRecord(PAYMENT_SUCCESS.getTopic(), event, codec.encode(event));
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.utils;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Event;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding a saga event with the compact history of {@link CompactHistory} against the plain list history.
+ * The encoded sizes are printed once per trial, before the first warmup iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventSizeBenchmark {
+
+    @Param("8")
+    private int historyEntries;
+
+    private ObjectMapper listJson;
+    private ObjectMapper listSmile;
+    private EventCodec jsonCodec;
+    private EventCodec smileCodec;
+    private Event event;
+
+    @Setup
+    public void setup() throws Exception {
+        var objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        listJson = objectMapper;
+        listSmile = objectMapper.copyWith(SmileFactory
+                .builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build());
+        jsonCodec = new EventCodec(objectMapper, new SimpleMeterRegistry(), EEventCodec.JSON);
+        smileCodec = new EventCodec(objectMapper, new SimpleMeterRegistry(), EEventCodec.SMILE);
+        event = SagaEvents.event(historyEntries);
+        System.out.printf("Encoded %d-entry event: JSON %d -> %d bytes, Smile %d -> %d bytes%n", historyEntries,
+                listJson.writeValueAsBytes(event).length, jsonCodec.encode(event).length,
+                listSmile.writeValueAsBytes(event).length, smileCodec.encode(event).length);
+    }
+
+    @Benchmark
+    public byte[] listHistoryJson() throws Exception {
+        return listJson.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public byte[] compactHistoryJson() {
+        return jsonCodec.encode(event);
+    }
+
+    @Benchmark
+    public byte[] listHistorySmile() throws Exception {
+        return listSmile.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public byte[] compactHistorySmile() {
+        return smileCodec.encode(event);
+    }
+}
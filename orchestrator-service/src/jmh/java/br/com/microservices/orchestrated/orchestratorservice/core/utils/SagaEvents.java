@@ -0,0 +1,89 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.utils;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Event;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.History;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Order;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.OrderProducts;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Product;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.*;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus.SUCCESS;
+
+/**
+ * Saga events shaped like the ones on the wire: a two-product order and the history of a successful saga
+ * cut to the requested number of entries.
+ */
+final class SagaEvents {
+
+    private static final long STEP_NANOS = 37_000_000L;
+
+    private static final List<History> SUCCESSFUL_SAGA = List.of(
+            history(ORCHESTRATOR, "Saga started!"),
+            history(ORCHESTRATOR, "Saga routed to topics product-validation-success"),
+            history(PRODUCT_VALIDATION_SERVICE, "Products are validated successfully!"),
+            history(ORCHESTRATOR, "Saga routed to topics payment-success, inventory-success"),
+            history(PAYMENT_SERVICE, "Payment realized successfully!"),
+            history(INVENTORY_SERVICE, "Inventory updated successfully!"),
+            history(ORCHESTRATOR, "Saga routed to topics finish-success"),
+            history(ORCHESTRATOR, "Saga finished successfully!"));
+
+    private SagaEvents() {
+    }
+
+    static Event event(int historyEntries) {
+        return event(UUID.randomUUID().toString(), historyEntries);
+    }
+
+    static Event event(String transactionId, int historyEntries) {
+        var createdAt = LocalDateTime.now();
+        var orderId = UUID.randomUUID().toString().replace("-", "").substring(0, 24);
+        return Event
+                .builder()
+                .id(UUID.randomUUID().toString())
+                .transactionId(transactionId)
+                .orderId(orderId)
+                .payload(Order
+                        .builder()
+                        .id(orderId)
+                        .transactionId(transactionId)
+                        .products(List.of(
+                                new OrderProducts(new Product("COMIC_BOOKS", 15.50), 3),
+                                new OrderProducts(new Product("BOOKS", 9.90), 1)))
+                        .createdAt(createdAt)
+                        .totalAmount(56.40)
+                        .totalItems(4)
+                        .build())
+                .source(SUCCESSFUL_SAGA.get(historyEntries - 1).getSource())
+                .status(SUCCESS)
+                .eventHistory(IntStream
+                        .range(0, historyEntries)
+                        .mapToObj(index -> History
+                                .builder()
+                                .source(SUCCESSFUL_SAGA.get(index).getSource())
+                                .status(SUCCESSFUL_SAGA.get(index).getStatus())
+                                .message(SUCCESSFUL_SAGA.get(index).getMessage())
+                                .createdAt(createdAt.plusNanos(index * STEP_NANOS))
+                                .build())
+                        .collect(Collectors.toCollection(ArrayList::new)))
+                .createdAt(createdAt)
+                .build();
+    }
+
+    static History history(EEventSource source, String message) {
+        return History
+                .builder()
+                .source(source)
+                .status(ESagaStatus.SUCCESS)
+                .message(message)
+                .build();
+    }
+}
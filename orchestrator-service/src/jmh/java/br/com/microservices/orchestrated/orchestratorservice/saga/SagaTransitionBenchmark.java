@@ -0,0 +1,115 @@
+package br.com.microservices.orchestrated.orchestratorservice.saga;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.*;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus.*;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics.*;
+
+/**
+ * Next-topic lookup of the compiled {@link SagaHandler} against the {@code Object[][]} table it replaced,
+ * scanned the way the table was read before: a stream filter over every row. The parallel flow is the
+ * default {@code saga.flow} with payment and inventory in one stage, read together with its fork flag.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SagaTransitionBenchmark {
+
+    private static final int EVENT_SOURCE_INDEX = 0;
+    private static final int SAGA_STATUS_INDEX = 1;
+    private static final int TOPIC_INDEX = 2;
+
+    private static final Object[][] LEGACY_TABLE = {
+            { ORCHESTRATOR, SUCCESS, PRODUCT_VALIDATION_SUCCESS },
+            { ORCHESTRATOR, FAIL, FINISH_FAIL },
+
+            { PRODUCT_VALIDATION_SERVICE, ROLLBACK_PENDING, PRODUCT_VALIDATION_FAIL },
+            { PRODUCT_VALIDATION_SERVICE, FAIL, FINISH_FAIL },
+            { PRODUCT_VALIDATION_SERVICE, SUCCESS, PAYMENT_SUCCESS },
+
+            { PAYMENT_SERVICE, ROLLBACK_PENDING, PAYMENT_FAIL },
+            { PAYMENT_SERVICE, FAIL, PRODUCT_VALIDATION_FAIL },
+            { PAYMENT_SERVICE, SUCCESS, INVENTORY_SUCCESS },
+
+            { INVENTORY_SERVICE, ROLLBACK_PENDING, INVENTORY_FAIL },
+            { INVENTORY_SERVICE, FAIL, PAYMENT_FAIL },
+            { INVENTORY_SERVICE, SUCCESS, FINISH_SUCCESS }
+    };
+
+    private SagaHandler handler;
+    private SagaHandler parallelHandler;
+    private EEventSource[] sources;
+    private ESagaStatus[] statuses;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        handler = SagaHandler.compile(SagaDefinition
+                .builder()
+                .step(PRODUCT_VALIDATION_SERVICE, PRODUCT_VALIDATION_SUCCESS, PRODUCT_VALIDATION_FAIL)
+                .step(PAYMENT_SERVICE, PAYMENT_SUCCESS, PAYMENT_FAIL)
+                .step(INVENTORY_SERVICE, INVENTORY_SUCCESS, INVENTORY_FAIL)
+                .build());
+        parallelHandler = SagaHandler.compile(SagaDefinition
+                .builder()
+                .step(PRODUCT_VALIDATION_SERVICE, PRODUCT_VALIDATION_SUCCESS, PRODUCT_VALIDATION_FAIL)
+                .parallel(
+                        SagaDefinition.step(PAYMENT_SERVICE, PAYMENT_SUCCESS, PAYMENT_FAIL),
+                        SagaDefinition.step(INVENTORY_SERVICE, INVENTORY_SUCCESS, INVENTORY_FAIL))
+                .build());
+        sources = Arrays.stream(LEGACY_TABLE).map(row -> (EEventSource) row[EVENT_SOURCE_INDEX]).toArray(EEventSource[]::new);
+        statuses = Arrays.stream(LEGACY_TABLE).map(row -> (ESagaStatus) row[SAGA_STATUS_INDEX]).toArray(ESagaStatus[]::new);
+    }
+
+    @Benchmark
+    public ETopics legacyTableScan() {
+        var index = next();
+        var source = sources[index];
+        var status = statuses[index];
+        return Arrays.stream(LEGACY_TABLE)
+                .filter(row -> source.equals(row[EVENT_SOURCE_INDEX]) && status.equals(row[SAGA_STATUS_INDEX]))
+                .map(row -> (ETopics) row[TOPIC_INDEX])
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Benchmark
+    public List<ETopics> compiledHandler() {
+        var index = next();
+        return handler.getNextTopics(sources[index], statuses[index]);
+    }
+
+    @Benchmark
+    public boolean compiledParallelHandler() {
+        var index = next();
+        var topics = parallelHandler.getNextTopics(sources[index], statuses[index]);
+        return parallelHandler.isFork(sources[index], statuses[index]) && topics.size() > 1;
+    }
+
+    @Benchmark
+    public SagaHandler compileParallelFlow() {
+        return SagaHandler.compile(SagaDefinition
+                .builder()
+                .step(PRODUCT_VALIDATION_SERVICE, PRODUCT_VALIDATION_SUCCESS, PRODUCT_VALIDATION_FAIL)
+                .parallel(
+                        SagaDefinition.step(PAYMENT_SERVICE, PAYMENT_SUCCESS, PAYMENT_FAIL),
+                        SagaDefinition.step(INVENTORY_SERVICE, INVENTORY_SUCCESS, INVENTORY_FAIL))
+                .build());
+    }
+
+    private int next() {
+        cursor = cursor == sources.length - 1 ? 0 : cursor + 1;
+        return cursor;
+    }
+}
@@ -1,21 +1,36 @@
 package br.com.microservices.orchestrated.orchestratorservice.config.kafka;
 
-import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
+import br.com.microservices.orchestrated.orchestratorservice.config.exception.ValidationException;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EProducerProfile;
+import br.com.microservices.orchestrated.orchestratorservice.core.metrics.SagaLatencyMetrics;
+import br.com.microservices.orchestrated.orchestratorservice.core.utils.EventCodec;
+import br.com.microservices.orchestrated.orchestratorservice.core.utils.SagaEnvelope;
 import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.util.backoff.FixedBackOff;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics.*;
 
@@ -24,58 +39,148 @@ import static br.com.microservices.orchestrated.orchestratorservice.core.enums.E
 @RequiredArgsConstructor
 public class KafkaConfig {
 
-    private static final Integer PARTITION_COUNT = 1;
     private static final Integer REPLICA_COUNT = 1;
+    private static final String TOPIC_PARTITIONS_PROPERTY = "spring.kafka.partitions.";
+    private static final String RETRY_TOPIC_SUFFIX = "-retry";
+    private static final String DLT_TOPIC_SUFFIX = "-dlt";
+
+    private final Environment environment;
+    private final EventCodec eventCodec;
 
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Value("${spring.kafka.producer-profile}")
+    private EProducerProfile producerProfile;
+
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
     @Value("${spring.kafka.consumer.auto-offset-reset}")
     private String autoOffsetReset;
 
+    @Value("${spring.kafka.partitions.default}")
+    private Integer defaultPartitionCount;
+
+    @Value("${spring.kafka.listener.concurrency}")
+    private Integer listenerConcurrency;
+
+    @Value("${spring.kafka.consumer.max-poll-records}")
+    private Integer maxPollRecords;
+
+    @Value("${spring.kafka.retry.attempts}")
+    private Integer retryAttempts;
+
+    @Value("${spring.kafka.retry.interval}")
+    private Long retryInterval;
+
     @Bean
-    public ConsumerFactory<String, String> consumerFactory() {
-        return new DefaultKafkaConsumerFactory<>(consumerConfigs());
+    public ConsumerFactory<String, SagaEnvelope> consumerFactory() {
+        return new DefaultKafkaConsumerFactory<>(consumerConfigs(), new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(new SagaEnvelopeDeserializer(eventCodec)));
+    }
+
+    @Bean
+    public ConsumerFactory<String, byte[]> deadLetterConsumerFactory() {
+        return new DefaultKafkaConsumerFactory<>(consumerConfigs(), new StringDeserializer(),
+                new ByteArrayDeserializer());
     }
 
     private Map<String, Object> consumerConfigs() {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
-        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, autoOffsetReset);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
         return props;
     }
 
     @Bean
-    public ProducerFactory<String, String> producerFactory() {
-        return new DefaultKafkaProducerFactory<>(producerProps()) ;
+    public ConcurrentKafkaListenerContainerFactory<String, SagaEnvelope> kafkaListenerContainerFactory(
+            ConsumerFactory<String, SagaEnvelope> consumerFactory,
+            KafkaTemplate<String, Object> kafkaTemplate,
+            SagaLatencyMetrics sagaLatencyMetrics) {
+        var factory = new ConcurrentKafkaListenerContainerFactory<String, SagaEnvelope>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.setBatchInterceptor((records, consumer) -> {
+            sagaLatencyMetrics.recordQueueDelay(records);
+            return records;
+        });
+        factory.setCommonErrorHandler(new DefaultErrorHandler(
+                deadLetterRecoverer(kafkaTemplate, RETRY_TOPIC_SUFFIX), new FixedBackOff(0L, 0L)));
+        factory.setConcurrency(listenerConcurrency);
+        return factory;
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, SagaEnvelope> retryListenerContainerFactory(
+            ConsumerFactory<String, SagaEnvelope> consumerFactory,
+            KafkaTemplate<String, Object> kafkaTemplate) {
+        // retries block the -retry partition, so they are kept short and fixed before the record moves to the DLT
+        var errorHandler = new DefaultErrorHandler(deadLetterRecoverer(kafkaTemplate, DLT_TOPIC_SUFFIX),
+                new FixedBackOff(retryInterval, retryAttempts - 1L));
+        errorHandler.addNotRetryableExceptions(ValidationException.class);
+        var factory = new ConcurrentKafkaListenerContainerFactory<String, SagaEnvelope>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setCommonErrorHandler(errorHandler);
+        factory.setConcurrency(listenerConcurrency);
+        return factory;
+    }
+
+    private DeadLetterPublishingRecoverer deadLetterRecoverer(KafkaTemplate<String, Object> kafkaTemplate,
+                                                              String suffix) {
+        return new DeadLetterPublishingRecoverer(kafkaTemplate, (record, exception) -> new TopicPartition(
+                mainTopicOf(record.topic()).concat(isRetryable(exception) ? suffix : DLT_TOPIC_SUFFIX), -1));
+    }
+
+    private String mainTopicOf(String topic) {
+        return topic.endsWith(RETRY_TOPIC_SUFFIX)
+                ? topic.substring(0, topic.length() - RETRY_TOPIC_SUFFIX.length())
+                : topic;
+    }
+
+    private boolean isRetryable(Throwable exception) {
+        for (var cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ValidationException) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Bean
+    public ProducerFactory<String, Object> producerFactory() {
+        return new DefaultKafkaProducerFactory<>(producerProps(), new StringSerializer(),
+                new DelegatingByTypeSerializer(Map.of(
+                        byte[].class, new ByteArraySerializer(),
+                        SagaEnvelope.class, new SagaEnvelopeSerializer())));
     }
 
     private Map<String, Object> producerProps() {
         Map<String, Object> props = new HashMap<>();
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.putAll(producerProfile.getProperties());
         return props;
     }
 
     @Bean
-    public KafkaTemplate<String, String> kafkaTemplate(ProducerFactory<String, String> producerFactory) {
-        return new KafkaTemplate<>(producerFactory());
+    public KafkaTemplate<String, Object> kafkaTemplate(ProducerFactory<String, Object> producerFactory) {
+        return new KafkaTemplate<>(producerFactory);
     }
 
     private NewTopic buildTopic(String topicName) {
         return TopicBuilder.name(topicName)
-                .partitions(PARTITION_COUNT)
+                .partitions(partitionCountOf(topicName))
                 .replicas(REPLICA_COUNT)
                 .build();
     }
 
+    private Integer partitionCountOf(String topicName) {
+        return environment.getProperty(TOPIC_PARTITIONS_PROPERTY.concat(topicName), Integer.class, defaultPartitionCount);
+    }
+
     @Bean
     public NewTopic startSagaTopic() {
         return buildTopic(START_SAGA.getTopic());
@@ -129,4 +234,15 @@ public class KafkaConfig {
     public NewTopic notifyEndingTopic() {
         return buildTopic(NOTIFY_ENDING.getTopic());
     }
+
+    @Bean
+    public KafkaAdmin.NewTopics retryAndDeadLetterTopics() {
+        return new KafkaAdmin.NewTopics(Stream
+                .of(START_SAGA, BASE_ORCHESTRATOR, FINISH_SUCCESS, FINISH_FAIL)
+                .flatMap(topic -> Stream.of(
+                        topic.getTopic().concat(RETRY_TOPIC_SUFFIX),
+                        topic.getTopic().concat(DLT_TOPIC_SUFFIX)))
+                .map(this::buildTopic)
+                .toArray(NewTopic[]::new));
+    }
 }
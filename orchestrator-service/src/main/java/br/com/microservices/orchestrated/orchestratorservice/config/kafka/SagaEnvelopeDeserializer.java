@@ -0,0 +1,28 @@
+package br.com.microservices.orchestrated.orchestratorservice.config.kafka;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.utils.EventCodec;
+import br.com.microservices.orchestrated.orchestratorservice.core.utils.SagaEnvelope;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Reads only the saga headers of a record and leaves the body as bytes. Meant to be wrapped by an
+ * {@code ErrorHandlingDeserializer}, which turns invalid headers into a record the container routes to the DLT.
+ */
+@RequiredArgsConstructor
+public class SagaEnvelopeDeserializer implements Deserializer<SagaEnvelope> {
+
+    private final EventCodec eventCodec;
+
+    @Override
+    public SagaEnvelope deserialize(String topic, byte[] data) {
+        return deserialize(topic, new RecordHeaders(), data);
+    }
+
+    @Override
+    public SagaEnvelope deserialize(String topic, Headers headers, byte[] data) {
+        return data == null ? null : eventCodec.envelope(data, headers);
+    }
+}
@@ -0,0 +1,15 @@
+package br.com.microservices.orchestrated.orchestratorservice.config.kafka;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.utils.SagaEnvelope;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Republishes the original bytes of a consumed record, used when the error handler sends it to a retry or DLT topic.
+ */
+public class SagaEnvelopeSerializer implements Serializer<SagaEnvelope> {
+
+    @Override
+    public byte[] serialize(String topic, SagaEnvelope envelope) {
+        return envelope == null ? null : envelope.getPayload();
+    }
+}
@@ -0,0 +1,85 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.admission;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.journal.SagaJournal;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Caps the sagas in flight with a concurrency limit and a token bucket. When either is exhausted
+ * the start-saga listener is paused, so new orders wait in Kafka instead of flooding the participants.
+ * The sagas in flight are the live sagas of the journal, which expires the ones left without updates;
+ * tokens are only taken for the sagas a batch actually started.
+ */
+@Slf4j
+@Component
+public class SagaAdmissionController {
+
+    public static final String START_SAGA_LISTENER = "start-saga-listener";
+
+    private final SagaJournal sagaJournal;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final TokenBucket tokenBucket;
+    private final int maxInFlight;
+    private final int resumeInFlight;
+
+    public SagaAdmissionController(SagaJournal sagaJournal,
+                                   KafkaListenerEndpointRegistry listenerRegistry,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${saga.admission.max-in-flight}") int maxInFlight,
+                                   @Value("${saga.admission.resume-in-flight}") int resumeInFlight,
+                                   @Value("${saga.admission.rate}") double rate,
+                                   @Value("${saga.admission.burst}") double burst) {
+        this.sagaJournal = sagaJournal;
+        this.listenerRegistry = listenerRegistry;
+        this.tokenBucket = new TokenBucket(rate, burst);
+        this.maxInFlight = maxInFlight;
+        this.resumeInFlight = Math.min(resumeInFlight, maxInFlight);
+        meterRegistry.gauge("saga.admission.in-flight", sagaJournal, SagaJournal::countLiveSagas);
+        meterRegistry.gauge("saga.admission.tokens", tokenBucket, TokenBucket::available);
+        meterRegistry.gauge("saga.admission.paused", this, controller -> controller.isPaused() ? 1 : 0);
+    }
+
+    public void onStarted(int count) {
+        tokenBucket.take(count);
+        var inFlight = sagaJournal.countLiveSagas();
+        if (inFlight >= maxInFlight || tokenBucket.available() < 1) {
+            startSagaListener()
+                    .filter(container -> !container.isPauseRequested())
+                    .ifPresent(container -> {
+                        log.warn("Pausing start-saga listener with {} sagas in flight", inFlight);
+                        container.pause();
+                    });
+        }
+    }
+
+    @Scheduled(fixedRateString = "${saga.admission.check-interval}")
+    public void resumeWhenDrained() {
+        var inFlight = sagaJournal.countLiveSagas();
+        if (inFlight > resumeInFlight || tokenBucket.available() < 1) {
+            return;
+        }
+        startSagaListener()
+                .filter(MessageListenerContainer::isPauseRequested)
+                .ifPresent(container -> {
+                    log.info("Resuming start-saga listener with {} sagas in flight", inFlight);
+                    container.resume();
+                });
+    }
+
+    public boolean isPaused() {
+        return startSagaListener()
+                .map(MessageListenerContainer::isPauseRequested)
+                .orElse(false);
+    }
+
+    private Optional<MessageListenerContainer> startSagaListener() {
+        return Optional.ofNullable(listenerRegistry.getListenerContainer(START_SAGA_LISTENER));
+    }
+}
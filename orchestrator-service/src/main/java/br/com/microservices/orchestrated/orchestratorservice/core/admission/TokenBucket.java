@@ -0,0 +1,34 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.admission;
+
+public class TokenBucket {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000D;
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long refilledAt;
+
+    public TokenBucket(double tokensPerSecond, double capacity) {
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / NANOS_PER_SECOND;
+        this.tokens = capacity;
+        this.refilledAt = System.nanoTime();
+    }
+
+    public synchronized void take(int count) {
+        refill();
+        tokens -= count;
+    }
+
+    public synchronized double available() {
+        refill();
+        return tokens;
+    }
+
+    private void refill() {
+        var now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+    }
+}
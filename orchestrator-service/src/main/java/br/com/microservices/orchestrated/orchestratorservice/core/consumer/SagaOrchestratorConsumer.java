@@ -1,55 +1,60 @@
 package br.com.microservices.orchestrated.orchestratorservice.core.consumer;
 
-import br.com.microservices.orchestrated.orchestratorservice.core.utils.JsonUtil;
+import br.com.microservices.orchestrated.orchestratorservice.core.service.OrchestratorService;
+import br.com.microservices.orchestrated.orchestratorservice.core.utils.SagaEnvelope;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
+import static br.com.microservices.orchestrated.orchestratorservice.core.admission.SagaAdmissionController.START_SAGA_LISTENER;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class SagaOrchestratorConsumer {
 
-    private final JsonUtil jsonUtil;;
+    private final OrchestratorService orchestratorService;
 
     @KafkaListener(
+            id = START_SAGA_LISTENER,
+            idIsGroup = false,
             groupId = "${spring.kafka.consumer.group-id}",
-            topics = "${spring.kafka.topic.start-saga}"
+            topics = "${spring.kafka.topic.start-saga}",
+            properties = "max.poll.records=${saga.admission.batch-size}"
     )
-    public void consumeStartSagaEvent(String payload) {
-        log.info("Receiving event {} from start-saga topic", payload);
-        var event = jsonUtil.toEvent(payload);
-        log.info(event.toString());
+    public void consumeStartSagaEvent(List<ConsumerRecord<String, SagaEnvelope>> records) {
+        log.info("Receiving {} events from start-saga topic", records.size());
+        orchestratorService.startSaga(records);
     }
 
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
             topics = "${spring.kafka.topic.orchestrator}"
     )
-    public void consumeOrchestratorEvent(String payload) {
-        log.info("Receiving event {} from orchestrator topic", payload);
-        var event = jsonUtil.toEvent(payload);
-        log.info(event.toString());
+    public void consumeOrchestratorEvent(List<ConsumerRecord<String, SagaEnvelope>> records) {
+        log.info("Receiving {} events from orchestrator topic", records.size());
+        orchestratorService.continueSaga(records);
     }
 
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
             topics = "${spring.kafka.topic.finish-success}"
     )
-    public void consumeFinishSuccessEvent(String payload) {
-        log.info("Receiving event {} from finish-success topic", payload);
-        var event = jsonUtil.toEvent(payload);
-        log.info(event.toString());
+    public void consumeFinishSuccessEvent(List<ConsumerRecord<String, SagaEnvelope>> records) {
+        log.info("Receiving {} events from finish-success topic", records.size());
+        orchestratorService.finishSagaSuccess(records);
     }
 
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
             topics = "${spring.kafka.topic.finish-fail}"
     )
-    public void consumeFinishFailEvent(String payload) {
-        log.info("Receiving event {} from finish-fail topic", payload);
-        var event = jsonUtil.toEvent(payload);
-        log.info(event.toString());
+    public void consumeFinishFailEvent(List<ConsumerRecord<String, SagaEnvelope>> records) {
+        log.info("Receiving {} events from finish-fail topic", records.size());
+        orchestratorService.finishSagaFail(records);
     }
 }
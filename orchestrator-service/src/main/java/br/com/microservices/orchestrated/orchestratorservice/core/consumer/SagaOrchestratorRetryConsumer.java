@@ -0,0 +1,59 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.consumer;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.service.OrchestratorService;
+import br.com.microservices.orchestrated.orchestratorservice.core.utils.SagaEnvelope;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SagaOrchestratorRetryConsumer {
+
+    private final OrchestratorService orchestratorService;
+
+    @KafkaListener(
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "${spring.kafka.topic.start-saga}-retry",
+            containerFactory = "retryListenerContainerFactory"
+    )
+    public void consumeStartSagaRetry(ConsumerRecord<String, SagaEnvelope> record) {
+        log.info("Retrying event from start-saga-retry topic");
+        orchestratorService.startSaga(List.of(record));
+    }
+
+    @KafkaListener(
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "${spring.kafka.topic.orchestrator}-retry",
+            containerFactory = "retryListenerContainerFactory"
+    )
+    public void consumeOrchestratorRetry(ConsumerRecord<String, SagaEnvelope> record) {
+        log.info("Retrying event from orchestrator-retry topic");
+        orchestratorService.continueSaga(List.of(record));
+    }
+
+    @KafkaListener(
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "${spring.kafka.topic.finish-success}-retry",
+            containerFactory = "retryListenerContainerFactory"
+    )
+    public void consumeFinishSuccessRetry(ConsumerRecord<String, SagaEnvelope> record) {
+        log.info("Retrying event from finish-success-retry topic");
+        orchestratorService.finishSagaSuccess(List.of(record));
+    }
+
+    @KafkaListener(
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "${spring.kafka.topic.finish-fail}-retry",
+            containerFactory = "retryListenerContainerFactory"
+    )
+    public void consumeFinishFailRetry(ConsumerRecord<String, SagaEnvelope> record) {
+        log.info("Retrying event from finish-fail-retry topic");
+        orchestratorService.finishSagaFail(List.of(record));
+    }
+}
@@ -0,0 +1,36 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.controller;
+
+import br.com.microservices.orchestrated.orchestratorservice.config.exception.ValidationException;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.DeadLetterReplay;
+import br.com.microservices.orchestrated.orchestratorservice.core.journal.SagaJournal;
+import br.com.microservices.orchestrated.orchestratorservice.core.journal.SagaState;
+import br.com.microservices.orchestrated.orchestratorservice.core.service.DeadLetterReplayService;
+import lombok.AllArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@AllArgsConstructor
+@RequestMapping("/api/saga")
+public class SagaController {
+
+    private final SagaJournal sagaJournal;
+    private final DeadLetterReplayService deadLetterReplayService;
+
+    /**
+     * Finds a live saga or one of the last {@code saga.journal.finished-saga-capacity} finished ones. Sagas
+     * expired for inactivity, and those finished before the last snapshot preceding a restart, are not found.
+     */
+    @GetMapping("/{transactionId}")
+    public SagaState findByTransactionId(@PathVariable String transactionId) {
+        return sagaJournal
+                .findByTransactionId(transactionId)
+                .or(() -> sagaJournal.findFinishedByTransactionId(transactionId))
+                .orElseThrow(() -> new ValidationException("Saga not found by transactionId"));
+    }
+
+    @PostMapping("/dlt/{topic}/replay")
+    public DeadLetterReplay replayDeadLetters(@PathVariable String topic,
+                                              @RequestParam(defaultValue = "100") int maxRecords) {
+        return deadLetterReplayService.replay(topic, maxRecords);
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.dedup;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Bloom filter over strings. Bit positions come from double hashing of a 64-bit
+ * FNV-1a hash, so a lookup costs {@code hashCount} array reads and no allocation.
+ */
+public class BloomFilter {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        var bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+        this.words = new AtomicLongArray((int) Math.max(1, (bits + 63) >>> 6));
+        this.bitCount = (long) words.length() << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    public boolean mightContain(String key) {
+        var hash = hash(key);
+        var h1 = (int) hash;
+        var h2 = (int) (hash >>> 32);
+        for (var i = 1; i <= hashCount; i++) {
+            var bit = index(h1 + i * h2);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void put(String key) {
+        var hash = hash(key);
+        var h1 = (int) hash;
+        var h2 = (int) (hash >>> 32);
+        for (var i = 1; i <= hashCount; i++) {
+            var bit = index(h1 + i * h2);
+            var mask = 1L << bit;
+            words.getAndUpdate((int) (bit >>> 6), word -> word | mask);
+        }
+    }
+
+    private long index(int combined) {
+        return (combined & Integer.MAX_VALUE) % bitCount;
+    }
+
+    private static long hash(String key) {
+        var hash = FNV_OFFSET;
+        for (var i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,43 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.dedup;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Two generations of {@link BloomFilter}. Once the current generation holds {@code generationSize}
+ * keys it becomes the previous one and the oldest generation is dropped, which bounds memory and
+ * keeps the false-positive rate close to the configured probability.
+ */
+public class RotatingBloomFilter {
+
+    private final long generationSize;
+    private final double falsePositiveProbability;
+    private final AtomicLong insertions = new AtomicLong();
+    private volatile BloomFilter current;
+    private volatile BloomFilter previous;
+
+    public RotatingBloomFilter(long generationSize, double falsePositiveProbability) {
+        this.generationSize = generationSize;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.current = new BloomFilter(generationSize, falsePositiveProbability);
+        this.previous = new BloomFilter(generationSize, falsePositiveProbability);
+    }
+
+    public boolean mightContain(String key) {
+        return current.mightContain(key) || previous.mightContain(key);
+    }
+
+    public void put(String key) {
+        current.put(key);
+        if (insertions.incrementAndGet() >= generationSize) {
+            rotate();
+        }
+    }
+
+    private synchronized void rotate() {
+        if (insertions.get() >= generationSize) {
+            previous = current;
+            current = new BloomFilter(generationSize, falsePositiveProbability);
+            insertions.set(0);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.dedup;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.SagaMetadata;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
+import br.com.microservices.orchestrated.orchestratorservice.core.journal.SagaJournal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.ORCHESTRATOR;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics.BASE_ORCHESTRATOR;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics.START_SAGA;
+
+/**
+ * Drops events already routed for the same {@code (transactionId, source, status)} on the same topic.
+ * The Bloom filter answers most lookups for new events; only a Bloom hit consults the exact LRU. A hit
+ * missing from the LRU is routed, and counted as {@code evicted} when the key was pushed out of the LRU
+ * or as {@code false_positive} otherwise. Keys are recorded once their batch is acknowledged by the broker,
+ * and both structures are seeded on startup with the last routed event of every live saga in the journal.
+ */
+@Slf4j
+@Component
+public class SagaEventDeduplicator {
+
+    private static final String KEY_SEPARATOR = "|";
+
+    private final SagaJournal sagaJournal;
+    private final RotatingBloomFilter bloomFilter;
+    private final RotatingBloomFilter evictedKeys;
+    private final Map<String, Boolean> recentKeys;
+    private final Counter duplicates;
+    private final Counter misses;
+    private final Counter evictions;
+    private final Counter falsePositives;
+
+    public SagaEventDeduplicator(SagaJournal sagaJournal,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${saga.dedup.expected-insertions}") long expectedInsertions,
+                                 @Value("${saga.dedup.false-positive-probability}") double falsePositiveProbability,
+                                 @Value("${saga.dedup.lru-size}") int lruSize) {
+        this.sagaJournal = sagaJournal;
+        this.bloomFilter = new RotatingBloomFilter(expectedInsertions, falsePositiveProbability);
+        this.evictedKeys = new RotatingBloomFilter(expectedInsertions, falsePositiveProbability);
+        this.recentKeys = new LinkedHashMap<>(lruSize, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                if (size() <= lruSize) {
+                    return false;
+                }
+                evictedKeys.put(eldest.getKey());
+                return true;
+            }
+        };
+        this.duplicates = counter(meterRegistry, "duplicate");
+        this.misses = counter(meterRegistry, "miss");
+        this.evictions = counter(meterRegistry, "evicted");
+        this.falsePositives = counter(meterRegistry, "false_positive");
+    }
+
+    @PostConstruct
+    public void recover() {
+        var keys = new ArrayList<String>();
+        sagaJournal.findLiveSagas().forEach(state -> keys.add(ORCHESTRATOR.equals(state.source())
+                ? keyOf(START_SAGA, new SagaMetadata(state.transactionId(), state.orderId(), null, null))
+                : keyOf(BASE_ORCHESTRATOR, new SagaMetadata(state.transactionId(), state.orderId(),
+                        state.source(), state.status()))));
+        sagaJournal.findOpenJoins().values().forEach(replies -> replies.forEach(reply -> keys.add(keyOf(
+                BASE_ORCHESTRATOR, new SagaMetadata(reply.transactionId(), null, reply.source(), reply.status())))));
+        record(keys);
+        log.info("Seeded the duplicate filter with {} keys from the journal", keys.size());
+    }
+
+    public String keyOf(ETopics topic, SagaMetadata metadata) {
+        return String.join(KEY_SEPARATOR, topic.getTopic(), metadata.transactionId(),
+                String.valueOf(metadata.source()), String.valueOf(metadata.status()));
+    }
+
+    public boolean isDuplicate(String key) {
+        if (!bloomFilter.mightContain(key)) {
+            misses.increment();
+            return false;
+        }
+        boolean known;
+        synchronized (recentKeys) {
+            known = recentKeys.get(key) != null;
+        }
+        if (known) {
+            duplicates.increment();
+        } else if (evictedKeys.mightContain(key)) {
+            evictions.increment();
+        } else {
+            falsePositives.increment();
+        }
+        return known;
+    }
+
+    public void record(Collection<String> keys) {
+        keys.forEach(bloomFilter::put);
+        synchronized (recentKeys) {
+            keys.forEach(key -> recentKeys.put(key, Boolean.TRUE));
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter
+                .builder("saga.dedup.lookups")
+                .description("Duplicate filter lookups by result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
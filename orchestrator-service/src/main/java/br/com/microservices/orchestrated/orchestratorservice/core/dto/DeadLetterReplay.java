@@ -0,0 +1,4 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.dto;
+
+public record DeadLetterReplay(String deadLetterTopic, String targetTopic, int replayed) {
+}
@@ -7,7 +7,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Data
 @Builder
@@ -18,7 +18,7 @@ public class History {
     private EEventSource source;
     private ESagaStatus status;
     private String message;
-    private LocalDate createdAt;
+    private LocalDateTime createdAt;
 
 
 }
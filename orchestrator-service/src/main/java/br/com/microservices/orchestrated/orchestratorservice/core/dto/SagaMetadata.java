@@ -0,0 +1,14 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.dto;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus;
+
+public record SagaMetadata(String transactionId,
+                           String orderId,
+                           EEventSource source,
+                           ESagaStatus status) {
+
+    public static SagaMetadata of(Event event) {
+        return new SagaMetadata(event.getTransactionId(), event.getOrderId(), event.getSource(), event.getStatus());
+    }
+}
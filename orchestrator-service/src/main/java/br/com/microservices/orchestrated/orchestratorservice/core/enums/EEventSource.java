@@ -1,7 +1,7 @@
 package br.com.microservices.orchestrated.orchestratorservice.core.enums;
 
 public enum EEventSource {
-    ORCHERSTRATOR,
+    ORCHESTRATOR,
     PRODUCT_VALIDATION_SERVICE,
     PAYMENT_SERVICE,
     INVENTORY_SERVICE;
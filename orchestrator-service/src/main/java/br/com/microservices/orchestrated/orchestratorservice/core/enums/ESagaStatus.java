@@ -1,7 +1,7 @@
 package br.com.microservices.orchestrated.orchestratorservice.core.enums;
 
 public enum ESagaStatus {
-    SUCESSO,
-    ROLLBACK_PENDInG,
+    SUCCESS,
+    ROLLBACK_PENDING,
     FAIL;
 }
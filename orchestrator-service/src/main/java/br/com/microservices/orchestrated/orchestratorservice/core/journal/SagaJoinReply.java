@@ -0,0 +1,14 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.journal;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus;
+
+/**
+ * A branch reply taken by an open parallel join. The event is kept encoded so the join can be
+ * rebuilt, and its replies merged, after a restart; it is empty when the reply was too large to journal.
+ */
+public record SagaJoinReply(String transactionId,
+                            EEventSource source,
+                            ESagaStatus status,
+                            byte[] event) {
+}
@@ -0,0 +1,453 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.journal;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32C;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Append-only journal of saga transitions kept in memory-mapped segment files.
+ * Each record is [length][crc32c][body]; a zero length marks the end of the written data.
+ * The body starts with its kind: a saga state, a reply taken by an open parallel join, the
+ * close of a join, or the expiry of a saga. The live-saga and open-join maps are periodically
+ * written to a snapshot so that recovery only replays the segments appended after it; sagas not
+ * updated for {@code saga.journal.live-saga-max-age} are expired just before. The last
+ * {@code saga.journal.finished-saga-capacity} finished sagas are kept in memory only, for lookups.
+ */
+@Slf4j
+@Component
+public class SagaJournal {
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_FILE = "snapshot.bin";
+    private static final String SNAPSHOT_TEMP_FILE = "snapshot.tmp";
+    private static final int SNAPSHOT_MAGIC = 0x534A4E4C;
+    private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+    private static final int MAX_BODY_SIZE = Short.MAX_VALUE;
+    private static final int MAX_JOIN_REPLY_SIZE = MAX_BODY_SIZE - 1024;
+    private static final byte NULL_ORDINAL = -1;
+    private static final byte STATE_RECORD = 0;
+    private static final byte JOIN_REPLY_RECORD = 1;
+    private static final byte JOIN_CLOSED_RECORD = 2;
+    private static final byte SAGA_EXPIRED_RECORD = 3;
+
+    private final Map<String, SagaState> sagas = new ConcurrentHashMap<>();
+    private final Map<String, List<SagaJoinReply>> joins = new ConcurrentHashMap<>();
+    private final Map<String, SagaState> finishedSagas;
+    private final ByteBuffer scratch = ByteBuffer.allocate(MAX_BODY_SIZE);
+    private final CRC32C crc = new CRC32C();
+    private final Path directory;
+    private final int segmentSize;
+    private final long liveSagaMaxAge;
+
+    private MappedByteBuffer segment;
+    private long segmentNumber;
+
+    public SagaJournal(@Value("${saga.journal.directory}") String directory,
+                       @Value("${saga.journal.segment-size}") int segmentSize,
+                       @Value("${saga.journal.live-saga-max-age}") long liveSagaMaxAge,
+                       @Value("${saga.journal.finished-saga-capacity}") int finishedSagaCapacity) {
+        this.directory = Path.of(directory);
+        this.segmentSize = segmentSize;
+        this.liveSagaMaxAge = liveSagaMaxAge;
+        this.finishedSagas = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SagaState> eldest) {
+                return size() > finishedSagaCapacity;
+            }
+        };
+    }
+
+    @PostConstruct
+    public synchronized void recover() throws IOException {
+        var startedAt = System.currentTimeMillis();
+        Files.createDirectories(directory);
+        var replayFrom = loadSnapshot();
+        var replayed = 0L;
+        segmentNumber = replayFrom.segment();
+        for (var number : listSegments()) {
+            if (number < replayFrom.segment()) {
+                continue;
+            }
+            var buffer = mapSegment(number);
+            buffer.position(number == replayFrom.segment() ? replayFrom.position() : 0);
+            replayed += replay(buffer);
+            segmentNumber = number;
+            segment = buffer;
+        }
+        if (segment == null) {
+            segment = mapSegment(segmentNumber);
+            segment.position(replayFrom.position());
+        }
+        log.info("Saga journal recovered {} live sagas and {} open joins ({} records replayed) in {} ms",
+                sagas.size(), joins.size(), replayed, System.currentTimeMillis() - startedAt);
+    }
+
+    public synchronized void append(List<SagaState> states) {
+        states.forEach(this::append);
+    }
+
+    public synchronized void append(SagaState state) {
+        scratch.clear();
+        encode(state, scratch);
+        write(scratch);
+        apply(state);
+    }
+
+    public synchronized void appendJoinReply(SagaJoinReply reply) {
+        if (reply.event().length > MAX_JOIN_REPLY_SIZE) {
+            log.warn("Join reply of transactionId {} has {} bytes, journaling it without its event",
+                    reply.transactionId(), reply.event().length);
+            reply = new SagaJoinReply(reply.transactionId(), reply.source(), reply.status(), new byte[0]);
+        }
+        scratch.clear();
+        encode(reply, scratch);
+        write(scratch);
+        apply(reply);
+    }
+
+    public synchronized void closeJoin(String transactionId) {
+        if (!joins.containsKey(transactionId)) {
+            return;
+        }
+        scratch.clear();
+        scratch.put(JOIN_CLOSED_RECORD);
+        putString(scratch, transactionId);
+        write(scratch.flip());
+        joins.remove(transactionId);
+    }
+
+    public Optional<SagaState> findByTransactionId(String transactionId) {
+        return Optional.ofNullable(sagas.get(transactionId));
+    }
+
+    public synchronized Optional<SagaState> findFinishedByTransactionId(String transactionId) {
+        return Optional.ofNullable(finishedSagas.get(transactionId));
+    }
+
+    public List<SagaState> findLiveSagas() {
+        return List.copyOf(sagas.values());
+    }
+
+    public synchronized Map<String, List<SagaJoinReply>> findOpenJoins() {
+        var open = new HashMap<String, List<SagaJoinReply>>(joins.size());
+        joins.forEach((transactionId, replies) -> open.put(transactionId, List.copyOf(replies)));
+        return open;
+    }
+
+    public int countLiveSagas() {
+        return sagas.size();
+    }
+
+    @Scheduled(fixedDelayString = "${saga.journal.snapshot-interval}")
+    public void snapshot() {
+        expireStaleSagas();
+        JournalPosition position;
+        Map<String, List<SagaJoinReply>> openJoins;
+        synchronized (this) {
+            segment.force();
+            position = new JournalPosition(segmentNumber, segment.position());
+            openJoins = findOpenJoins();
+        }
+        try {
+            writeSnapshot(position, openJoins);
+            deleteSegmentsBefore(position.segment());
+        } catch (IOException e) {
+            log.error("Error trying to write saga journal snapshot", e);
+        }
+    }
+
+    private void expireStaleSagas() {
+        var cutoff = Instant.now().minusMillis(liveSagaMaxAge);
+        var expired = 0;
+        for (var state : sagas.values()) {
+            if (state.updatedAt().isBefore(cutoff) && expire(state)) {
+                expired++;
+            }
+        }
+        if (expired > 0) {
+            log.warn("Expired {} live sagas not updated since {}", expired, cutoff);
+        }
+    }
+
+    private synchronized boolean expire(SagaState state) {
+        if (!sagas.remove(state.transactionId(), state)) {
+            return false;
+        }
+        scratch.clear();
+        scratch.put(SAGA_EXPIRED_RECORD);
+        putString(scratch, state.transactionId());
+        write(scratch.flip());
+        joins.remove(state.transactionId());
+        return true;
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (segment != null) {
+            segment.force();
+        }
+    }
+
+    private void write(ByteBuffer body) {
+        if (segment.remaining() < RECORD_HEADER_SIZE + body.remaining()) {
+            roll();
+        }
+        segment.putInt(body.remaining());
+        segment.putInt(checksum(body));
+        segment.put(body);
+    }
+
+    private void apply(SagaState state) {
+        if (state.isFinished()) {
+            sagas.remove(state.transactionId());
+            joins.remove(state.transactionId());
+            finishedSagas.put(state.transactionId(), state);
+        } else {
+            sagas.put(state.transactionId(), state);
+        }
+    }
+
+    private void apply(SagaJoinReply reply) {
+        joins.computeIfAbsent(reply.transactionId(), transactionId -> new ArrayList<>()).add(reply);
+    }
+
+    private void apply(ByteBuffer body) {
+        var kind = body.get();
+        switch (kind) {
+            case STATE_RECORD -> apply(decodeState(body));
+            case JOIN_REPLY_RECORD -> apply(decodeJoinReply(body));
+            case JOIN_CLOSED_RECORD -> joins.remove(getString(body));
+            case SAGA_EXPIRED_RECORD -> {
+                var transactionId = getString(body);
+                sagas.remove(transactionId);
+                joins.remove(transactionId);
+            }
+            default -> throw new IllegalStateException("Unknown saga journal record kind " + kind);
+        }
+    }
+
+    private long replay(ByteBuffer buffer) {
+        var replayed = 0L;
+        while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+            var start = buffer.position();
+            var length = buffer.getInt();
+            var expectedChecksum = buffer.getInt();
+            if (length == 0) {
+                buffer.position(start);
+                break;
+            }
+            if (length < 0 || length > buffer.remaining()
+                    || checksum(buffer.slice(buffer.position(), length)) != expectedChecksum) {
+                log.warn("Saga journal record at position {} is corrupted, truncating the journal there", start);
+                truncate(buffer, start);
+                break;
+            }
+            var body = buffer.slice(buffer.position(), length);
+            apply(body);
+            buffer.position(buffer.position() + length);
+            replayed++;
+        }
+        return replayed;
+    }
+
+    // zeroes the rest of the segment so that records written before the corruption cannot be replayed again once
+    // new records have been appended over the corrupted one
+    private void truncate(ByteBuffer buffer, int position) {
+        for (var index = position; index < buffer.limit(); index++) {
+            buffer.put(index, (byte) 0);
+        }
+        buffer.position(position);
+    }
+
+    private void roll() {
+        segment.force();
+        segmentNumber++;
+        try {
+            segment = mapSegment(segmentNumber);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error trying to open saga journal segment " + segmentNumber, e);
+        }
+    }
+
+    private MappedByteBuffer mapSegment(long number) throws IOException {
+        try (var channel = FileChannel.open(segmentPath(number), CREATE, READ, WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    private List<Long> listSegments() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files
+                    .map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private void deleteSegmentsBefore(long number) throws IOException {
+        for (var existing : listSegments()) {
+            if (existing < number) {
+                Files.deleteIfExists(segmentPath(existing));
+            }
+        }
+    }
+
+    private Path segmentPath(long number) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    private void writeSnapshot(JournalPosition position, Map<String, List<SagaJoinReply>> openJoins) throws IOException {
+        var temp = directory.resolve(SNAPSHOT_TEMP_FILE);
+        try (var channel = FileChannel.open(temp, CREATE, WRITE, TRUNCATE_EXISTING);
+             var output = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)))) {
+            output.writeInt(SNAPSHOT_MAGIC);
+            output.writeLong(position.segment());
+            output.writeInt(position.position());
+            var body = ByteBuffer.allocate(MAX_BODY_SIZE);
+            for (var state : sagas.values()) {
+                body.clear();
+                encode(state, body);
+                output.writeInt(body.remaining());
+                output.write(body.array(), 0, body.remaining());
+            }
+            for (var replies : openJoins.values()) {
+                for (var reply : replies) {
+                    body.clear();
+                    encode(reply, body);
+                    output.writeInt(body.remaining());
+                    output.write(body.array(), 0, body.remaining());
+                }
+            }
+            output.writeInt(0);
+            output.flush();
+            channel.force(true);
+        }
+        Files.move(temp, directory.resolve(SNAPSHOT_FILE), ATOMIC_MOVE, REPLACE_EXISTING);
+    }
+
+    private JournalPosition loadSnapshot() throws IOException {
+        try (var input = new DataInputStream(new BufferedInputStream(Files.newInputStream(directory.resolve(SNAPSHOT_FILE))))) {
+            if (input.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Invalid saga journal snapshot header");
+            }
+            var position = new JournalPosition(input.readLong(), input.readInt());
+            var body = new byte[MAX_BODY_SIZE];
+            for (var length = input.readInt(); length > 0; length = input.readInt()) {
+                input.readFully(body, 0, length);
+                apply(ByteBuffer.wrap(body, 0, length));
+            }
+            return position;
+        } catch (NoSuchFileException e) {
+            return new JournalPosition(0, 0);
+        }
+    }
+
+    private void encode(SagaState state, ByteBuffer buffer) {
+        buffer.put(STATE_RECORD);
+        buffer.putLong(state.updatedAt().toEpochMilli());
+        buffer.put(ordinal(state.source()));
+        buffer.put(ordinal(state.status()));
+        buffer.put(ordinal(state.currentTopic()));
+        putString(buffer, state.transactionId());
+        putString(buffer, state.orderId());
+        buffer.flip();
+    }
+
+    private void encode(SagaJoinReply reply, ByteBuffer buffer) {
+        buffer.put(JOIN_REPLY_RECORD);
+        buffer.put(ordinal(reply.source()));
+        buffer.put(ordinal(reply.status()));
+        putString(buffer, reply.transactionId());
+        buffer.putInt(reply.event().length);
+        buffer.put(reply.event());
+        buffer.flip();
+    }
+
+    private SagaState decodeState(ByteBuffer buffer) {
+        var updatedAt = Instant.ofEpochMilli(buffer.getLong());
+        var source = valueOf(EEventSource.values(), buffer.get());
+        var status = valueOf(ESagaStatus.values(), buffer.get());
+        var topic = valueOf(ETopics.values(), buffer.get());
+        var transactionId = getString(buffer);
+        var orderId = getString(buffer);
+        return new SagaState(transactionId, orderId, source, status, topic, updatedAt);
+    }
+
+    private SagaJoinReply decodeJoinReply(ByteBuffer buffer) {
+        var source = valueOf(EEventSource.values(), buffer.get());
+        var status = valueOf(ESagaStatus.values(), buffer.get());
+        var transactionId = getString(buffer);
+        var event = new byte[buffer.getInt()];
+        buffer.get(event);
+        return new SagaJoinReply(transactionId, source, status, event);
+    }
+
+    private int checksum(ByteBuffer body) {
+        crc.reset();
+        crc.update(body.duplicate());
+        return (int) crc.getValue();
+    }
+
+    private static byte ordinal(Enum<?> value) {
+        return value == null ? NULL_ORDINAL : (byte) value.ordinal();
+    }
+
+    private static <E extends Enum<E>> E valueOf(E[] values, byte ordinal) {
+        return ordinal == NULL_ORDINAL ? null : values[ordinal];
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putShort(NULL_ORDINAL);
+            return;
+        }
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        var length = buffer.getShort();
+        if (length == NULL_ORDINAL) {
+            return null;
+        }
+        var bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private record JournalPosition(long segment, int position) {
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.journal;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Event;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.SagaMetadata;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
+
+import java.time.Instant;
+
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics.NOTIFY_ENDING;
+
+public record SagaState(String transactionId,
+                        String orderId,
+                        EEventSource source,
+                        ESagaStatus status,
+                        ETopics currentTopic,
+                        Instant updatedAt) {
+
+    public static SagaState of(Event event, ETopics topic) {
+        return of(SagaMetadata.of(event), topic);
+    }
+
+    public static SagaState of(SagaMetadata metadata, ETopics topic) {
+        return new SagaState(
+                metadata.transactionId(),
+                metadata.orderId(),
+                metadata.source(),
+                metadata.status(),
+                topic,
+                Instant.now()
+        );
+    }
+
+    public boolean isFinished() {
+        return NOTIFY_ENDING.equals(currentTopic);
+    }
+}
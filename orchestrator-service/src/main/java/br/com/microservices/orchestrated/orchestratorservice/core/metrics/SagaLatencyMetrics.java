@@ -0,0 +1,86 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.metrics;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Event;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.SagaMetadata;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
+import br.com.microservices.orchestrated.orchestratorservice.core.utils.SagaEnvelope;
+import br.com.microservices.orchestrated.orchestratorservice.saga.SagaHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics.*;
+import static org.springframework.util.ObjectUtils.isEmpty;
+
+/**
+ * Latency timers of the saga hops. Percentiles are configured through
+ * {@code management.metrics.distribution.percentiles.saga} and computed by Micrometer on top of HdrHistogram.
+ */
+@Component
+public class SagaLatencyMetrics {
+
+    private static final List<ETopics> CONSUMED_TOPICS = List.of(START_SAGA, BASE_ORCHESTRATOR, FINISH_SUCCESS, FINISH_FAIL);
+
+    private final Map<String, Timer> queueTimers = new HashMap<>();
+    private final Map<ETopics, Timer> stepTimers = new EnumMap<>(ETopics.class);
+    private final Map<ETopics, Timer> sagaTimers = new EnumMap<>(ETopics.class);
+    private final SagaHandler sagaHandler;
+
+    public SagaLatencyMetrics(SagaHandler sagaHandler, MeterRegistry meterRegistry) {
+        this.sagaHandler = sagaHandler;
+        CONSUMED_TOPICS.forEach(topic -> queueTimers.put(topic.getTopic(), timer(meterRegistry, topic,
+                "saga.step.queue", "Time a record waited in Kafka before the orchestrator consumed it")));
+        for (var topic : ETopics.values()) {
+            if (sagaHandler.getStepSource(topic) != null) {
+                stepTimers.put(topic, timer(meterRegistry, topic,
+                        "saga.step.latency", "Time from dispatching a saga step to consuming the participant reply"));
+            }
+        }
+        List.of(FINISH_SUCCESS, FINISH_FAIL).forEach(topic -> sagaTimers.put(topic, timer(meterRegistry, topic,
+                "saga.duration", "Time from the order creation to the end of the saga")));
+    }
+
+    public void recordQueueDelay(ConsumerRecords<String, SagaEnvelope> records) {
+        var now = System.currentTimeMillis();
+        records.forEach(record -> {
+            var timer = queueTimers.get(record.topic());
+            if (timer != null && record.timestamp() > 0) {
+                timer.record(now - record.timestamp(), TimeUnit.MILLISECONDS);
+            }
+        });
+    }
+
+    public void recordStep(SagaMetadata reply, Instant dispatchedAt) {
+        if (isEmpty(reply.source()) || isEmpty(reply.status()) || dispatchedAt == null) {
+            return;
+        }
+        var timer = stepTimers.get(sagaHandler.getStepTopic(reply.source(), reply.status()));
+        if (timer != null) {
+            timer.record(Duration.between(dispatchedAt, Instant.now()));
+        }
+    }
+
+    public void recordSaga(Event event, ETopics outcome) {
+        if (event.getCreatedAt() != null) {
+            sagaTimers.get(outcome).record(Duration.between(event.getCreatedAt(), LocalDateTime.now()));
+        }
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, ETopics topic, String name, String description) {
+        return Timer
+                .builder(name)
+                .description(description)
+                .tag("step", topic.getTopic())
+                .register(meterRegistry);
+    }
+}
@@ -1,25 +1,39 @@
 package br.com.microservices.orchestrated.orchestratorservice.core.producer;
 
 import lombok.AllArgsConstructor;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.kafka.KafkaException;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 @Slf4j
 @Component
 @AllArgsConstructor
 public class SagaOrchestratrorProducer {
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
 
-    private void sendEvent(String payload, String topic) {
-        try{
-            log.info("Sending event to topic {} with data {}", topic, payload);
-            kafkaTemplate.send(topic, payload);
-        } catch (Exception e) {
-            log.error("Error trying to send data to topic {} with data {}", topic, payload);
+    /**
+     * Sends the batch and waits for every broker acknowledgement. A failed send is rethrown, so the listener
+     * batch goes back to the container error handler and on to the retry topic instead of losing the step.
+     */
+    public void sendEvents(List<ProducerRecord<String, Object>> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        var sends = records.stream().map(kafkaTemplate::send).toArray(CompletableFuture[]::new);
+        kafkaTemplate.flush();
+        try {
+            CompletableFuture.allOf(sends).join();
+        } catch (CompletionException e) {
+            log.error("Error trying to send batch of {} events", records.size(), e.getCause());
+            throw new KafkaException("Saga event batch could not be sent", e.getCause());
         }
+        log.info("Sent batch of {} events", records.size());
     }
 }
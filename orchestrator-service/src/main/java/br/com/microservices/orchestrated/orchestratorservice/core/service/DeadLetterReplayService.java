@@ -0,0 +1,92 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.service;
+
+import br.com.microservices.orchestrated.orchestratorservice.config.exception.ValidationException;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.DeadLetterReplay;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.StreamSupport;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DeadLetterReplayService {
+
+    private static final String DLT_TOPIC_SUFFIX = "-dlt";
+    private static final String DLT_HEADER_PREFIX = KafkaHeaders.PREFIX.concat("dlt-");
+    private static final String RETRY_HEADER_PREFIX = "retry_topic-";
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(2);
+
+    private final ConsumerFactory<String, byte[]> deadLetterConsumerFactory;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Value("${spring.kafka.retry.replay-group-id}")
+    private String replayGroupId;
+
+    public DeadLetterReplay replay(String deadLetterTopic, int maxRecords) {
+        if (!deadLetterTopic.endsWith(DLT_TOPIC_SUFFIX) || maxRecords <= 0) {
+            throw new ValidationException("A dead-letter topic and a positive number of records must be informed.");
+        }
+        var targetTopic = deadLetterTopic.substring(0, deadLetterTopic.length() - DLT_TOPIC_SUFFIX.length());
+        var props = new Properties();
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxRecords);
+        try (var consumer = deadLetterConsumerFactory.createConsumer(replayGroupId, null, "-replay", props)) {
+            var partitions = consumer
+                    .partitionsFor(deadLetterTopic)
+                    .stream()
+                    .map(info -> new TopicPartition(info.topic(), info.partition()))
+                    .toList();
+            consumer.assign(partitions);
+            var sends = new ArrayList<CompletableFuture<?>>();
+            var offsets = new HashMap<TopicPartition, OffsetAndMetadata>();
+            while (sends.size() < maxRecords) {
+                var records = consumer.poll(POLL_TIMEOUT);
+                if (records.isEmpty()) {
+                    break;
+                }
+                for (var record : records) {
+                    if (sends.size() == maxRecords) {
+                        break;
+                    }
+                    sends.add(kafkaTemplate.send(new ProducerRecord<>(
+                            targetTopic, null, record.key(), record.value(), replayHeaders(record))));
+                    offsets.put(new TopicPartition(record.topic(), record.partition()),
+                            new OffsetAndMetadata(record.offset() + 1));
+                }
+            }
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
+            if (!offsets.isEmpty()) {
+                consumer.commitSync(offsets);
+            }
+            log.info("Replayed {} records from {} to {}", sends.size(), deadLetterTopic, targetTopic);
+            return new DeadLetterReplay(deadLetterTopic, targetTopic, sends.size());
+        }
+    }
+
+    private List<Header> replayHeaders(ConsumerRecord<String, byte[]> record) {
+        return StreamSupport
+                .stream(record.headers().spliterator(), false)
+                .filter(header -> !header.key().startsWith(DLT_HEADER_PREFIX)
+                        && !header.key().startsWith(RETRY_HEADER_PREFIX))
+                .toList();
+    }
+}
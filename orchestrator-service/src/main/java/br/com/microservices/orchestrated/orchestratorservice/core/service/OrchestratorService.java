@@ -0,0 +1,296 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.service;
+
+import br.com.microservices.orchestrated.orchestratorservice.config.exception.ValidationException;
+import br.com.microservices.orchestrated.orchestratorservice.core.admission.SagaAdmissionController;
+import br.com.microservices.orchestrated.orchestratorservice.core.dedup.SagaEventDeduplicator;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Event;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.History;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.SagaMetadata;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
+import br.com.microservices.orchestrated.orchestratorservice.core.journal.SagaJournal;
+import br.com.microservices.orchestrated.orchestratorservice.core.journal.SagaState;
+import br.com.microservices.orchestrated.orchestratorservice.core.metrics.SagaLatencyMetrics;
+import br.com.microservices.orchestrated.orchestratorservice.core.producer.SagaOrchestratrorProducer;
+import br.com.microservices.orchestrated.orchestratorservice.core.timeout.SagaTimeoutScheduler;
+import br.com.microservices.orchestrated.orchestratorservice.core.utils.EventCodec;
+import br.com.microservices.orchestrated.orchestratorservice.core.utils.HistorySpiller;
+import br.com.microservices.orchestrated.orchestratorservice.core.utils.SagaEnvelope;
+import br.com.microservices.orchestrated.orchestratorservice.saga.SagaExecutionController;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.core.log.LogAccessor;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.ListenerUtils;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.ORCHESTRATOR;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus.FAIL;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus.SUCCESS;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics.*;
+
+@Slf4j
+@Service
+@AllArgsConstructor
+public class OrchestratorService {
+
+    private static final LogAccessor LOGGER = new LogAccessor(OrchestratorService.class);
+
+    private final EventCodec eventCodec;
+    private final SagaJournal sagaJournal;
+    private final SagaOrchestratrorProducer producer;
+    private final SagaTimeoutScheduler sagaTimeoutScheduler;
+    private final SagaExecutionController sagaExecutionController;
+    private final SagaLatencyMetrics sagaLatencyMetrics;
+    private final SagaAdmissionController sagaAdmissionController;
+    private final SagaEventDeduplicator sagaEventDeduplicator;
+    private final HistorySpiller historySpiller;
+
+    public void startSaga(List<ConsumerRecord<String, SagaEnvelope>> records) {
+        var batch = new RoutedBatch(records.size());
+        try {
+            route(records, START_SAGA, this::startSaga, batch);
+        } finally {
+            sagaAdmissionController.onStarted(batch.sent);
+        }
+    }
+
+    public void continueSaga(List<ConsumerRecord<String, SagaEnvelope>> records) {
+        route(records, BASE_ORCHESTRATOR, this::continueSaga, new RoutedBatch(records.size()));
+    }
+
+    public void finishSagaSuccess(List<ConsumerRecord<String, SagaEnvelope>> records) {
+        route(records, FINISH_SUCCESS, this::finishSagaSuccess, new RoutedBatch(records.size()));
+    }
+
+    public void finishSagaFail(List<ConsumerRecord<String, SagaEnvelope>> records) {
+        route(records, FINISH_FAIL, this::finishSagaFail, new RoutedBatch(records.size()));
+    }
+
+    @Scheduled(fixedRateString = "${saga.timeout.tick}")
+    public void expireSteps() {
+        var expired = sagaTimeoutScheduler.pollExpired();
+        if (!expired.isEmpty()) {
+            routeEvents(expired, BASE_ORCHESTRATOR, this::continueSaga);
+        }
+    }
+
+    private void route(List<ConsumerRecord<String, SagaEnvelope>> records, ETopics consumedTopic,
+                       Function<Event, List<ETopics>> handler, RoutedBatch batch) {
+        for (var index = 0; index < records.size(); index++) {
+            try {
+                routeEvent(envelopeOf(records.get(index)), consumedTopic, handler, batch);
+            } catch (Exception e) {
+                batch.flush();
+                throw new BatchListenerFailedException("Error trying to route saga event", e, index);
+            }
+        }
+        batch.flush();
+    }
+
+    private SagaEnvelope envelopeOf(ConsumerRecord<String, SagaEnvelope> record) {
+        if (record.value() != null) {
+            return record.value();
+        }
+        var exception = ListenerUtils.getExceptionFromHeader(
+                record, SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, LOGGER);
+        if (exception != null) {
+            throw exception;
+        }
+        throw new ValidationException("Event payload is empty.");
+    }
+
+    private void routeEvents(List<Event> events, ETopics consumedTopic, Function<Event, List<ETopics>> handler) {
+        var batch = new RoutedBatch(events.size());
+        events.forEach(event -> {
+            try {
+                routeEvent(SagaEnvelope.of(event), consumedTopic, handler, batch);
+            } catch (Exception e) {
+                log.error("Error trying to route saga with transactionId {}", event.getTransactionId(), e);
+            }
+        });
+        batch.flush();
+    }
+
+    private void routeEvent(SagaEnvelope envelope, ETopics consumedTopic, Function<Event, List<ETopics>> handler,
+                            RoutedBatch batch) {
+        var metadata = envelope.getMetadata();
+        var key = sagaEventDeduplicator.keyOf(consumedTopic, metadata);
+        if (batch.keys.contains(key) || sagaEventDeduplicator.isDuplicate(key)) {
+            log.warn("Dropping duplicate {} event from {} for transactionId {}",
+                    metadata.status(), metadata.source(), metadata.transactionId());
+            return;
+        }
+        sagaTimeoutScheduler.cancel(metadata);
+        if (BASE_ORCHESTRATOR.equals(consumedTopic) && envelope.hasPayload()) {
+            sagaLatencyMetrics.recordStep(metadata, sagaJournal
+                    .findByTransactionId(metadata.transactionId())
+                    .map(SagaState::updatedAt)
+                    .orElse(null));
+        }
+        if (BASE_ORCHESTRATOR.equals(consumedTopic) && envelope.hasPayload()
+                && sagaExecutionController.isRoutableByHeaders(envelope.getHeaderMetadata())) {
+            forwardEvent(envelope, batch);
+        } else {
+            dispatchEvent(envelope, handler, batch);
+        }
+        batch.keys.add(key);
+    }
+
+    private void forwardEvent(SagaEnvelope envelope, RoutedBatch batch) {
+        var metadata = envelope.getHeaderMetadata();
+        if (isLateReply(metadata)) {
+            return;
+        }
+        var topics = sagaExecutionController.getNextTopics(metadata);
+        if (topics.isEmpty()) {
+            return;
+        }
+        var history = History
+                .builder()
+                .source(ORCHESTRATOR)
+                .status(metadata.status())
+                .message(routedMessage(topics))
+                .createdAt(LocalDateTime.now())
+                .build();
+        var states = new ArrayList<SagaState>(topics.size());
+        var records = new ArrayList<ProducerRecord<String, Object>>(topics.size());
+        topics.forEach(topic -> {
+            sagaTimeoutScheduler.schedule(metadata.transactionId(), topic);
+            states.add(SagaState.of(metadata, topic));
+            records.add(eventCodec.forward(topic.getTopic(), envelope, history));
+        });
+        batch.states.addAll(states);
+        batch.records.addAll(records);
+    }
+
+    private void dispatchEvent(SagaEnvelope envelope, Function<Event, List<ETopics>> handler, RoutedBatch batch) {
+        var event = envelope.getEvent();
+        var topics = handler.apply(event);
+        if (topics.isEmpty()) {
+            return;
+        }
+        var spill = historySpiller.spill(event);
+        if (spill != null) {
+            batch.records.add(spill);
+        }
+        var payload = eventCodec.encode(event);
+        var states = new ArrayList<SagaState>(topics.size());
+        var records = new ArrayList<ProducerRecord<String, Object>>(topics.size());
+        topics.forEach(topic -> {
+            sagaTimeoutScheduler.schedule(event.getTransactionId(), topic);
+            states.add(SagaState.of(event, topic));
+            records.add(eventCodec.toRecord(topic.getTopic(), event, payload));
+        });
+        batch.states.addAll(states);
+        batch.records.addAll(records);
+        batch.routed++;
+    }
+
+    private List<ETopics> startSaga(Event event) {
+        event.setSource(ORCHESTRATOR);
+        event.setStatus(SUCCESS);
+        var topics = sagaExecutionController.getNextTopics(event);
+        addHistory(event, "Saga started!");
+        return topics;
+    }
+
+    private List<ETopics> continueSaga(Event event) {
+        if (isLateReply(SagaMetadata.of(event))) {
+            return List.of();
+        }
+        var topics = sagaExecutionController.getNextTopics(event);
+        if (!topics.isEmpty()) {
+            addHistory(event, routedMessage(topics));
+        }
+        return topics;
+    }
+
+    private List<ETopics> finishSagaSuccess(Event event) {
+        event.setSource(ORCHESTRATOR);
+        event.setStatus(SUCCESS);
+        addHistory(event, "Saga finished successfully!");
+        sagaLatencyMetrics.recordSaga(event, FINISH_SUCCESS);
+        return List.of(NOTIFY_ENDING);
+    }
+
+    private List<ETopics> finishSagaFail(Event event) {
+        event.setSource(ORCHESTRATOR);
+        event.setStatus(FAIL);
+        addHistory(event, "Saga finished with errors!");
+        sagaLatencyMetrics.recordSaga(event, FINISH_FAIL);
+        return List.of(NOTIFY_ENDING);
+    }
+
+    private boolean isLateReply(SagaMetadata reply) {
+        if (reply.source() == null || reply.status() != SUCCESS) {
+            return false;
+        }
+        var rollbackTopic = sagaExecutionController.getRollbackTopic(reply.source());
+        var late = sagaJournal
+                .findByTransactionId(reply.transactionId())
+                .filter(state -> rollbackTopic.equals(state.currentTopic()))
+                .isPresent();
+        if (late) {
+            log.warn("Ignoring late {} reply from {} for transactionId {}: the step was already rolled back",
+                    reply.status(), reply.source(), reply.transactionId());
+        }
+        return late;
+    }
+
+    private String routedMessage(List<ETopics> topics) {
+        return "Saga routed to topics ".concat(topics
+                .stream()
+                .map(ETopics::getTopic)
+                .collect(Collectors.joining(", ")));
+    }
+
+    private void addHistory(Event event, String message) {
+        var history = History
+                .builder()
+                .source(ORCHESTRATOR)
+                .status(event.getStatus())
+                .message(message)
+                .createdAt(LocalDateTime.now())
+                .build();
+        event.addHistory(history);
+    }
+
+    private final class RoutedBatch {
+
+        private final List<SagaState> states;
+        private final List<ProducerRecord<String, Object>> records;
+        private final Set<String> keys;
+        private int routed;
+        private int sent;
+
+        private RoutedBatch(int size) {
+            states = new ArrayList<>(size);
+            records = new ArrayList<>(size);
+            keys = new HashSet<>(size);
+        }
+
+        private void flush() {
+            sagaJournal.append(states);
+            producer.sendEvents(records);
+            // sendEvents throws unless every record was acknowledged, so a failed batch records no keys
+            sagaEventDeduplicator.record(keys);
+            sent += routed;
+            routed = 0;
+            states.clear();
+            records.clear();
+            keys.clear();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hashed hierarchical timing wheel. Level {@code k} has {@code wheelSize} buckets of
+ * {@code tick * wheelSize^k} millis each; entries are linked into a bucket so adding and
+ * cancelling are O(1), and higher-level buckets cascade down as the clock reaches them.
+ * Expirations are rounded up to the tick, so an entry never fires before its deadline.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final long tick;
+    private final int mask;
+    private final long[] levelTicks;
+    private final List<List<Bucket<T>>> buckets;
+    private long currentTime;
+
+    public HierarchicalTimingWheel(long tick, int wheelSize, int levels, long startTime) {
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two");
+        }
+        this.tick = tick;
+        this.mask = wheelSize - 1;
+        this.levelTicks = new long[levels];
+        this.buckets = new ArrayList<>(levels);
+        for (var level = 0; level < levels; level++) {
+            levelTicks[level] = level == 0 ? tick : levelTicks[level - 1] * wheelSize;
+            var wheel = new ArrayList<Bucket<T>>(wheelSize);
+            for (var index = 0; index < wheelSize; index++) {
+                wheel.add(new Bucket<>());
+            }
+            buckets.add(wheel);
+        }
+        this.currentTime = startTime - startTime % tick;
+    }
+
+    public synchronized Timeout<T> add(T value, long expiration) {
+        var deadline = Math.floorDiv(expiration + tick - 1, tick) * tick;
+        var timeout = new Timeout<>(value, deadline);
+        link(timeout, false);
+        return timeout;
+    }
+
+    public synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout.bucket == null) {
+            return false;
+        }
+        timeout.bucket.unlink(timeout);
+        return true;
+    }
+
+    public synchronized List<T> advance(long now) {
+        var expired = new ArrayList<T>();
+        while (currentTime + tick <= now) {
+            currentTime += tick;
+            var top = 0;
+            while (top + 1 < levelTicks.length && currentTime % levelTicks[top + 1] == 0) {
+                top++;
+            }
+            for (var level = top; level > 0; level--) {
+                var bucket = bucket(level, currentTime);
+                for (var timeout = bucket.drain(); timeout != null; ) {
+                    var next = timeout.next;
+                    timeout.next = null;
+                    link(timeout, true);
+                    timeout = next;
+                }
+            }
+            var bucket = bucket(0, currentTime);
+            for (var timeout = bucket.drain(); timeout != null; timeout = timeout.next) {
+                expired.add(timeout.value);
+            }
+        }
+        return expired;
+    }
+
+    private void link(Timeout<T> timeout, boolean cascading) {
+        var delay = timeout.expiration - currentTime;
+        if (delay < tick) {
+            var expiration = cascading ? currentTime : currentTime + tick;
+            bucket(0, expiration).link(timeout);
+            return;
+        }
+        var top = levelTicks.length - 1;
+        for (var level = 0; level < top; level++) {
+            if (delay < levelTicks[level] * (mask + 1)) {
+                bucket(level, timeout.expiration).link(timeout);
+                return;
+            }
+        }
+        var horizon = Math.min(timeout.expiration, currentTime + levelTicks[top] * mask);
+        bucket(top, horizon).link(timeout);
+    }
+
+    private Bucket<T> bucket(int level, long time) {
+        return buckets.get(level).get((int) (time / levelTicks[level]) & mask);
+    }
+
+    public static final class Timeout<T> {
+
+        private final T value;
+        private final long expiration;
+        private Bucket<T> bucket;
+        private Timeout<T> previous;
+        private Timeout<T> next;
+
+        private Timeout(T value, long expiration) {
+            this.value = value;
+            this.expiration = expiration;
+        }
+
+        public T getValue() {
+            return value;
+        }
+    }
+
+    private static final class Bucket<T> {
+
+        private Timeout<T> head;
+
+        private void link(Timeout<T> timeout) {
+            timeout.bucket = this;
+            timeout.previous = null;
+            timeout.next = head;
+            if (head != null) {
+                head.previous = timeout;
+            }
+            head = timeout;
+        }
+
+        private void unlink(Timeout<T> timeout) {
+            if (timeout.previous != null) {
+                timeout.previous.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.previous = timeout.previous;
+            }
+            timeout.bucket = null;
+            timeout.previous = null;
+            timeout.next = null;
+        }
+
+        private Timeout<T> drain() {
+            var drained = head;
+            head = null;
+            for (var timeout = drained; timeout != null; timeout = timeout.next) {
+                timeout.bucket = null;
+                timeout.previous = null;
+            }
+            return drained;
+        }
+    }
+}
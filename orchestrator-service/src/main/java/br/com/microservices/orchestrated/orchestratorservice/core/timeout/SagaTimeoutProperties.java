@@ -0,0 +1,19 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.timeout;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "saga.timeout")
+public class SagaTimeoutProperties {
+
+    private long tick;
+    private int wheelSize;
+    private int levels;
+    private Map<ETopics, Duration> steps = new EnumMap<>(ETopics.class);
+}
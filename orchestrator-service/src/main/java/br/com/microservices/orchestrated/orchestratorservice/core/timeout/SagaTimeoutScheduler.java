@@ -0,0 +1,177 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.timeout;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Event;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.History;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Order;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.SagaMetadata;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
+import br.com.microservices.orchestrated.orchestratorservice.core.journal.SagaJournal;
+import br.com.microservices.orchestrated.orchestratorservice.core.journal.SagaState;
+import br.com.microservices.orchestrated.orchestratorservice.saga.SagaHandler;
+import br.com.microservices.orchestrated.orchestratorservice.saga.SagaJoinCoordinator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.ORCHESTRATOR;
+
+/**
+ * Deadlines of the saga steps waiting for a participant, kept as {@code (transactionId, topic)} entries in a
+ * {@link HierarchicalTimingWheel}. The wheel is rebuilt from the live sagas of the {@link SagaJournal} once the
+ * application is ready, and an expired entry only fires while the journal still shows its step as pending.
+ * Timeout events are built from the journaled saga state, so they carry the order id but not the order body.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(SagaTimeoutProperties.class)
+public class SagaTimeoutScheduler {
+
+    private final Map<PendingKey, HierarchicalTimingWheel.Timeout<PendingStep>> pending = new ConcurrentHashMap<>();
+    private final Map<ETopics, Counter> expiredCounters = new EnumMap<>(ETopics.class);
+    private final HierarchicalTimingWheel<PendingStep> wheel;
+    private final SagaTimeoutProperties properties;
+    private final SagaHandler sagaHandler;
+    private final SagaJournal sagaJournal;
+    private final SagaJoinCoordinator sagaJoinCoordinator;
+
+    public SagaTimeoutScheduler(SagaTimeoutProperties properties, SagaHandler sagaHandler, SagaJournal sagaJournal,
+                                SagaJoinCoordinator sagaJoinCoordinator, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.sagaHandler = sagaHandler;
+        this.sagaJournal = sagaJournal;
+        this.sagaJoinCoordinator = sagaJoinCoordinator;
+        this.wheel = new HierarchicalTimingWheel<>(
+                properties.getTick(), properties.getWheelSize(), properties.getLevels(), System.currentTimeMillis());
+        Arrays.stream(ETopics.values())
+                .filter(topic -> sagaHandler.getStepSource(topic) != null)
+                .forEach(topic -> expiredCounters.put(topic, Counter
+                        .builder("saga.step.timeouts")
+                        .description("Saga steps whose participant did not answer before the deadline")
+                        .tag("step", topic.getTopic())
+                        .register(meterRegistry)));
+        meterRegistry.gauge("saga.step.pending", pending, Map::size);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        var rebuilt = 0;
+        for (var state : sagaJournal.findLiveSagas()) {
+            for (var topic : pendingTopics(state)) {
+                if (schedule(state.transactionId(), topic, state.updatedAt().toEpochMilli(), false)) {
+                    rebuilt++;
+                }
+            }
+        }
+        log.info("Rebuilt {} saga step deadlines from the journal", rebuilt);
+    }
+
+    public void schedule(String transactionId, ETopics topic) {
+        schedule(transactionId, topic, System.currentTimeMillis(), true);
+    }
+
+    public void cancel(SagaMetadata reply) {
+        if (reply.source() == null || ORCHESTRATOR.equals(reply.source())) {
+            return;
+        }
+        var previous = pending.remove(new PendingKey(reply.transactionId(), reply.source()));
+        if (previous != null) {
+            wheel.cancel(previous);
+        }
+    }
+
+    public List<Event> pollExpired() {
+        return wheel
+                .advance(System.currentTimeMillis())
+                .stream()
+                .filter(this::claim)
+                .map(this::toTimeoutEvent)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private boolean schedule(String transactionId, ETopics topic, long startedAt, boolean replace) {
+        var timeout = properties.getSteps().get(topic);
+        var source = sagaHandler.getStepSource(topic);
+        if (timeout == null || source == null) {
+            return false;
+        }
+        var key = new PendingKey(transactionId, source);
+        var entry = wheel.add(new PendingStep(transactionId, topic), startedAt + timeout.toMillis());
+        var previous = replace ? pending.put(key, entry) : pending.putIfAbsent(key, entry);
+        if (!replace && previous != null) {
+            wheel.cancel(entry);
+            return false;
+        }
+        if (previous != null) {
+            wheel.cancel(previous);
+        }
+        return true;
+    }
+
+    private boolean claim(PendingStep step) {
+        var key = new PendingKey(step.transactionId(), sagaHandler.getStepSource(step.topic()));
+        var timeout = pending.get(key);
+        return timeout != null && timeout.getValue() == step && pending.remove(key, timeout);
+    }
+
+    private List<ETopics> pendingTopics(SagaState state) {
+        var source = sagaHandler.getStepSource(state.currentTopic());
+        if (source == null || !sagaHandler.isJoinBranch(source)) {
+            return List.of(state.currentTopic());
+        }
+        return sagaJoinCoordinator.findPendingTopics(state.transactionId());
+    }
+
+    private Event toTimeoutEvent(PendingStep step) {
+        var state = sagaJournal
+                .findByTransactionId(step.transactionId())
+                .filter(current -> pendingTopics(current).contains(step.topic()))
+                .orElse(null);
+        if (state == null) {
+            log.debug("Dropping deadline of saga step {} for transactionId {}: the step is no longer pending",
+                    step.topic().getTopic(), step.transactionId());
+            return null;
+        }
+        expiredCounters.get(step.topic()).increment();
+        var event = Event
+                .builder()
+                .transactionId(state.transactionId())
+                .orderId(state.orderId())
+                .payload(Order
+                        .builder()
+                        .id(state.orderId())
+                        .transactionId(state.transactionId())
+                        .build())
+                .source(sagaHandler.getStepSource(step.topic()))
+                .status(sagaHandler.getTimeoutStatus(step.topic()))
+                .build();
+        event.addHistory(History
+                .builder()
+                .source(ORCHESTRATOR)
+                .status(event.getStatus())
+                .message("No answer from topic ".concat(step.topic().getTopic()).concat(" before the step timeout"))
+                .createdAt(LocalDateTime.now())
+                .build());
+        log.warn("Saga step {} timed out for transactionId {}", step.topic().getTopic(), event.getTransactionId());
+        return event;
+    }
+
+    private record PendingKey(String transactionId, EEventSource source) {
+    }
+
+    private record PendingStep(String transactionId, ETopics topic) {
+    }
+}
@@ -0,0 +1,219 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.utils;
+
+import br.com.microservices.orchestrated.orchestratorservice.config.exception.ValidationException;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Event;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.History;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.SagaMetadata;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventCodec;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes events with the configured codec and stamps the codec and schema version as record headers.
+ * Records without a codec header are read as JSON, so producers that predate the headers keep working.
+ * The saga headers carry the routing metadata, so a record can be forwarded without decoding its body;
+ * the orchestrator history entry of a forwarded record travels in {@link #HISTORY_HEADER} and is folded
+ * back into the event history when the body is decoded.
+ */
+@Slf4j
+@Component
+public class EventCodec {
+
+    public static final String CODEC_HEADER = "saga-codec";
+    public static final String SCHEMA_VERSION_HEADER = "saga-schema-version";
+    public static final String TRANSACTION_ID_HEADER = "saga-transaction-id";
+    public static final String ORDER_ID_HEADER = "saga-order-id";
+    public static final String SOURCE_HEADER = "saga-source";
+    public static final String STATUS_HEADER = "saga-status";
+    public static final String STEP_HEADER = "saga-step";
+    public static final String HISTORY_HEADER = "saga-history";
+    public static final int SCHEMA_VERSION = 2;
+
+    private final Map<EEventCodec, ObjectMapper> mappers = new EnumMap<>(EEventCodec.class);
+    private final List<Header> headers;
+    private final DistributionSummary encodedBytes;
+
+    @Getter
+    private final EEventCodec codec;
+
+    public EventCodec(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                      @Value("${spring.kafka.codec}") EEventCodec codec) {
+        var compactMapper = CompactHistory.register(objectMapper);
+        this.codec = codec;
+        this.mappers.put(EEventCodec.JSON, compactMapper);
+        this.mappers.put(EEventCodec.SMILE, compactMapper.copyWith(SmileFactory
+                .builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build()));
+        this.headers = List.of(
+                new RecordHeader(CODEC_HEADER, codec.name().getBytes(StandardCharsets.UTF_8)),
+                new RecordHeader(SCHEMA_VERSION_HEADER, String.valueOf(SCHEMA_VERSION).getBytes(StandardCharsets.UTF_8)));
+        this.encodedBytes = DistributionSummary
+                .builder("saga.event.bytes")
+                .description("Encoded size of the events sent by the orchestrator")
+                .baseUnit("bytes")
+                .tag("codec", codec.name())
+                .register(meterRegistry);
+    }
+
+    public byte[] encode(Object value) {
+        try {
+            var payload = mappers.get(codec).writeValueAsBytes(value);
+            encodedBytes.record(payload.length);
+            return payload;
+        } catch (Exception e) {
+            log.error("Error encoding event with codec {}", codec, e);
+            throw new ValidationException("Event could not be encoded.");
+        }
+    }
+
+    /**
+     * Encodes an event for the saga journal. Journal bytes are always Smile, so they stay readable when
+     * the wire codec changes between restarts.
+     */
+    public byte[] encodeForJournal(Event event) {
+        try {
+            return mappers.get(EEventCodec.SMILE).writeValueAsBytes(event);
+        } catch (Exception e) {
+            log.error("Error encoding event of transactionId {} for the journal", event.getTransactionId(), e);
+            throw new ValidationException("Event could not be encoded.");
+        }
+    }
+
+    public Event decodeFromJournal(byte[] payload) {
+        try {
+            return mappers.get(EEventCodec.SMILE).readValue(payload, Event.class);
+        } catch (Exception e) {
+            log.error("Error decoding journaled event", e);
+            throw new ValidationException("Event payload could not be read.");
+        }
+    }
+
+    public ProducerRecord<String, Object> toRecord(String topic, Event event, byte[] payload) {
+        var recordHeaders = new RecordHeaders(headers);
+        writeMetadata(recordHeaders, SagaMetadata.of(event));
+        addHeader(recordHeaders, STEP_HEADER, topic);
+        return new ProducerRecord<>(topic, null, event.getTransactionId(), payload, recordHeaders);
+    }
+
+    public ProducerRecord<String, Object> toRecord(String topic, String key, byte[] payload) {
+        return new ProducerRecord<>(topic, null, key, payload, new RecordHeaders(headers));
+    }
+
+    public ProducerRecord<String, Object> forward(String topic, SagaEnvelope envelope, History history) {
+        var inbound = envelope.getHeaders();
+        var metadata = envelope.getHeaderMetadata();
+        var recordHeaders = new RecordHeaders();
+        copyHeader(inbound, recordHeaders, CODEC_HEADER);
+        copyHeader(inbound, recordHeaders, SCHEMA_VERSION_HEADER);
+        writeMetadata(recordHeaders, metadata);
+        addHeader(recordHeaders, STEP_HEADER, topic);
+        for (var previous : inbound.headers(HISTORY_HEADER)) {
+            recordHeaders.add(previous);
+        }
+        try {
+            recordHeaders.add(HISTORY_HEADER, mapperOf(inbound).writeValueAsBytes(history));
+        } catch (Exception e) {
+            log.error("Error encoding history entry for transactionId {}", metadata.transactionId(), e);
+            throw new ValidationException("History entry could not be encoded.");
+        }
+        return new ProducerRecord<>(topic, null, metadata.transactionId(), envelope.getPayload(), recordHeaders);
+    }
+
+    public SagaEnvelope envelope(byte[] payload, Headers recordHeaders) {
+        try {
+            checkSchemaVersion(recordHeaders);
+            mapperOf(recordHeaders);
+            return new SagaEnvelope(this, payload, recordHeaders, readMetadata(recordHeaders));
+        } catch (ValidationException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error reading saga headers", e);
+            throw new ValidationException("Saga headers could not be read.");
+        }
+    }
+
+    public Event decode(byte[] payload, Headers recordHeaders) {
+        try {
+            checkSchemaVersion(recordHeaders);
+            var mapper = mapperOf(recordHeaders);
+            var event = mapper.readValue(payload, Event.class);
+            for (var history : recordHeaders.headers(HISTORY_HEADER)) {
+                event.addHistory(mapper.readValue(history.value(), History.class));
+            }
+            return event;
+        } catch (ValidationException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error decoding event", e);
+            throw new ValidationException("Event payload could not be read.");
+        }
+    }
+
+    private void checkSchemaVersion(Headers recordHeaders) {
+        var version = headerValue(recordHeaders, SCHEMA_VERSION_HEADER);
+        if (version != null && Integer.parseInt(version) > SCHEMA_VERSION) {
+            throw new ValidationException("Unsupported event schema version ".concat(version));
+        }
+    }
+
+    private ObjectMapper mapperOf(Headers recordHeaders) {
+        var codecName = headerValue(recordHeaders, CODEC_HEADER);
+        return mappers.get(codecName == null ? EEventCodec.JSON : EEventCodec.valueOf(codecName));
+    }
+
+    private SagaMetadata readMetadata(Headers recordHeaders) {
+        var transactionId = headerValue(recordHeaders, TRANSACTION_ID_HEADER);
+        var source = headerValue(recordHeaders, SOURCE_HEADER);
+        var status = headerValue(recordHeaders, STATUS_HEADER);
+        if (transactionId == null || source == null || status == null) {
+            return null;
+        }
+        return new SagaMetadata(transactionId, headerValue(recordHeaders, ORDER_ID_HEADER),
+                EEventSource.valueOf(source), ESagaStatus.valueOf(status));
+    }
+
+    private void writeMetadata(Headers recordHeaders, SagaMetadata metadata) {
+        addHeader(recordHeaders, TRANSACTION_ID_HEADER, metadata.transactionId());
+        addHeader(recordHeaders, ORDER_ID_HEADER, metadata.orderId());
+        addHeader(recordHeaders, SOURCE_HEADER, metadata.source() == null ? null : metadata.source().name());
+        addHeader(recordHeaders, STATUS_HEADER, metadata.status() == null ? null : metadata.status().name());
+    }
+
+    private void addHeader(Headers recordHeaders, String name, String value) {
+        if (value != null) {
+            recordHeaders.add(name, value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void copyHeader(Headers from, Headers to, String name) {
+        var header = from.lastHeader(name);
+        if (header != null) {
+            to.add(header);
+        }
+    }
+
+    private String headerValue(Headers recordHeaders, String name) {
+        var header = recordHeaders.lastHeader(name);
+        return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,48 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.utils;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Event;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+
+/**
+ * Caps the history carried by an event: the oldest entries beyond {@code saga.history.max-entries} are moved
+ * into a record for the history spill topic, from which the order-service stores them next to the event.
+ */
+@Slf4j
+@Component
+public class HistorySpiller {
+
+    private final EventCodec eventCodec;
+    private final String topic;
+    private final int maxEntries;
+
+    public HistorySpiller(EventCodec eventCodec,
+                          @Value("${spring.kafka.topic.history-spill}") String topic,
+                          @Value("${saga.history.max-entries}") int maxEntries) {
+        this.eventCodec = eventCodec;
+        this.topic = topic;
+        this.maxEntries = maxEntries;
+    }
+
+    public ProducerRecord<String, Object> spill(Event event) {
+        var history = event.getEventHistory();
+        if (history == null || history.size() <= maxEntries) {
+            return null;
+        }
+        var overflow = history.subList(0, history.size() - maxEntries);
+        var spill = Event
+                .builder()
+                .transactionId(event.getTransactionId())
+                .orderId(event.getOrderId())
+                .eventHistory(new ArrayList<>(overflow))
+                .build();
+        overflow.clear();
+        log.info("Spilling {} history entries of transactionId {} to topic {}",
+                spill.getEventHistory().size(), event.getTransactionId(), topic);
+        return eventCodec.toRecord(topic, event.getTransactionId(), eventCodec.encode(spill));
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.utils;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Event;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.SagaMetadata;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.common.header.Headers;
+
+/**
+ * A consumed saga record whose body is only decoded when a route actually needs it.
+ * Records stamped with the saga headers can be routed and forwarded from {@link #getHeaderMetadata()} alone.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public class SagaEnvelope {
+
+    private final EventCodec eventCodec;
+
+    @Getter
+    private final byte[] payload;
+
+    @Getter
+    private final Headers headers;
+
+    @Getter
+    private final SagaMetadata headerMetadata;
+
+    private Event event;
+
+    public static SagaEnvelope of(Event event) {
+        var envelope = new SagaEnvelope(null, null, null, null);
+        envelope.event = event;
+        return envelope;
+    }
+
+    public boolean hasPayload() {
+        return payload != null;
+    }
+
+    public Event getEvent() {
+        if (event == null) {
+            event = eventCodec.decode(payload, headers);
+        }
+        return event;
+    }
+
+    public SagaMetadata getMetadata() {
+        return headerMetadata != null ? headerMetadata : SagaMetadata.of(getEvent());
+    }
+}
@@ -1,8 +0,0 @@
-package br.com.microservices.orchestrated.orchestratorservice.enums;
-
-public enum EEventSource {
-    ORCHESTRATOR,
-    PRODUCT_VALIDATION_SERVICE,
-    PAYMENT_SERVICE,
-    INVENTORY_SERVICE
-}
\ No newline at end of file
@@ -1,7 +0,0 @@
-package br.com.microservices.orchestrated.orchestratorservice.enums;
-
-public enum ESagaStatus {
-    SUCCESS,
-    ROLLBACK_PENDING,
-    FAIL
-}
\ No newline at end of file
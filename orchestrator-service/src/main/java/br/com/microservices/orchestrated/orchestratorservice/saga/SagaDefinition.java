@@ -0,0 +1,49 @@
+package br.com.microservices.orchestrated.orchestratorservice.saga;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public record SagaDefinition(List<List<SagaStep>> stages) {
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static SagaStep step(EEventSource source, ETopics topic, ETopics rollbackTopic) {
+        return new SagaStep(source, topic, rollbackTopic);
+    }
+
+    public record SagaStep(EEventSource source, ETopics topic, ETopics rollbackTopic) {
+    }
+
+    public static final class Builder {
+
+        private final List<List<SagaStep>> stages = new ArrayList<>();
+
+        private Builder() {
+
+        }
+
+        public Builder step(EEventSource source, ETopics topic, ETopics rollbackTopic) {
+            stages.add(List.of(SagaDefinition.step(source, topic, rollbackTopic)));
+            return this;
+        }
+
+        public Builder parallel(SagaStep... steps) {
+            stages.add(List.of(steps));
+            return this;
+        }
+
+        public Builder stage(List<SagaStep> steps) {
+            stages.add(List.copyOf(steps));
+            return this;
+        }
+
+        public SagaDefinition build() {
+            return new SagaDefinition(List.copyOf(stages));
+        }
+    }
+}
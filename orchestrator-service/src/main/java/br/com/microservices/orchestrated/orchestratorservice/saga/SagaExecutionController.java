@@ -0,0 +1,51 @@
+package br.com.microservices.orchestrated.orchestratorservice.saga;
+
+import br.com.microservices.orchestrated.orchestratorservice.config.exception.ValidationException;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Event;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.SagaMetadata;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+import static org.springframework.util.ObjectUtils.isEmpty;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SagaExecutionController {
+
+    private final SagaHandler sagaHandler;
+    private final SagaJoinCoordinator sagaJoinCoordinator;
+
+    public List<ETopics> getNextTopics(Event event) {
+        if (!isEmpty(event.getSource()) && sagaHandler.isJoinBranch(event.getSource())) {
+            return sagaJoinCoordinator.join(event);
+        }
+        return getNextTopics(SagaMetadata.of(event));
+    }
+
+    public List<ETopics> getNextTopics(SagaMetadata metadata) {
+        if (isEmpty(metadata.source()) || isEmpty(metadata.status())) {
+            throw new ValidationException("Source and status must be informed.");
+        }
+        if (sagaHandler.isJoinBranch(metadata.source())) {
+            throw new ValidationException("Join branch replies need the event body to be routed.");
+        }
+        if (sagaHandler.isFork(metadata.source(), metadata.status())) {
+            sagaJoinCoordinator.fork(metadata.transactionId());
+        }
+        return sagaHandler.getNextTopics(metadata.source(), metadata.status());
+    }
+
+    public boolean isRoutableByHeaders(SagaMetadata metadata) {
+        return metadata != null && !sagaHandler.isJoinBranch(metadata.source());
+    }
+
+    public ETopics getRollbackTopic(EEventSource source) {
+        return sagaHandler.getRollbackTopic(source);
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.microservices.orchestrated.orchestratorservice.saga;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(SagaFlowProperties.class)
+public class SagaFlowConfig {
+
+    @Value("${saga.parallel.enabled}")
+    private boolean parallelEnabled;
+
+    @Bean
+    public SagaHandler sagaHandler(SagaFlowProperties sagaFlowProperties) {
+        var definition = sagaFlowProperties.toDefinition(parallelEnabled);
+        var sagaHandler = SagaHandler.compile(definition);
+        log.info("Saga flow compiled with {} stages: {}", definition.stages().size(), definition.stages());
+        return sagaHandler;
+    }
+}
@@ -0,0 +1,51 @@
+package br.com.microservices.orchestrated.orchestratorservice.saga;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "saga.flow")
+public class SagaFlowProperties {
+
+    private List<Stage> stages = new ArrayList<>();
+
+    /**
+     * Builds the saga definition from the configured stages. Without {@code parallelEnabled}, the steps of a
+     * parallel stage run one after the other, in the order they are declared.
+     */
+    public SagaDefinition toDefinition(boolean parallelEnabled) {
+        var builder = SagaDefinition.builder();
+        stages.forEach(stage -> {
+            var steps = stage
+                    .getSteps()
+                    .stream()
+                    .map(step -> SagaDefinition.step(step.getSource(), step.getTopic(), step.getRollbackTopic()))
+                    .toList();
+            if (parallelEnabled) {
+                builder.stage(steps);
+            } else {
+                steps.forEach(step -> builder.stage(List.of(step)));
+            }
+        });
+        return builder.build();
+    }
+
+    @Data
+    public static class Stage {
+
+        private List<Step> steps = new ArrayList<>();
+    }
+
+    @Data
+    public static class Step {
+
+        private EEventSource source;
+        private ETopics topic;
+        private ETopics rollbackTopic;
+    }
+}
@@ -1,35 +1,192 @@
 package br.com.microservices.orchestrated.orchestratorservice.saga;
 
-import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.*;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.ORCHESTRATOR;
 import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus.*;
 import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics.*;
-import static br.com.microservices.orchestrated.orchestratorservice.enums.EEventSource.ORCHESTRATOR;
-import static br.com.microservices.orchestrated.orchestratorservice.enums.ESagaStatus.ROLLBACK_PENDING;
-import static br.com.microservices.orchestrated.orchestratorservice.enums.ESagaStatus.SUCCESS;
 
+/**
+ * Saga state machine compiled from a {@link SagaDefinition}. Every lookup is an array or list read
+ * indexed by enum ordinals; the tables are filled once by {@link #compile(SagaDefinition)}.
+ */
 public final class SagaHandler {
+
+    private static final int STATUS_COUNT = ESagaStatus.values().length;
+    private static final EnumSet<ETopics> RESERVED_TOPICS =
+            EnumSet.of(START_SAGA, BASE_ORCHESTRATOR, FINISH_SUCCESS, FINISH_FAIL, NOTIFY_ENDING);
+
+    private final List<List<ETopics>> transitions;
+    private final boolean[] forks;
+    private final boolean[] joinBranches;
+    private final ETopics[] stepTopics;
+    private final ETopics[] rollbackTopics;
+    private final EEventSource[] stepSources;
+    private final ESagaStatus[] timeoutStatuses;
+    private List<EEventSource> branchSources = List.of();
+    private List<ETopics> joinSuccessTopics = List.of();
+    private List<ETopics> joinRollbackTopics = List.of();
+
     private SagaHandler() {
+        transitions = new ArrayList<>(Collections.nCopies(EEventSource.values().length * STATUS_COUNT, null));
+        forks = new boolean[transitions.size()];
+        joinBranches = new boolean[EEventSource.values().length];
+        stepTopics = new ETopics[EEventSource.values().length];
+        rollbackTopics = new ETopics[EEventSource.values().length];
+        stepSources = new EEventSource[ETopics.values().length];
+        timeoutStatuses = new ESagaStatus[ETopics.values().length];
+    }
+
+    public static SagaHandler compile(SagaDefinition definition) {
+        validate(definition);
+        var handler = new SagaHandler();
+        var stages = definition.stages();
+        handler.register(ORCHESTRATOR, SUCCESS, forwardTopics(stages, 0), isParallel(stages, 0));
+        handler.register(ORCHESTRATOR, ROLLBACK_PENDING, List.of(FINISH_FAIL), false);
+        handler.register(ORCHESTRATOR, FAIL, List.of(FINISH_FAIL), false);
+        for (var index = 0; index < stages.size(); index++) {
+            var stage = stages.get(index);
+            for (var step : stage) {
+                var source = step.source();
+                handler.stepTopics[source.ordinal()] = step.topic();
+                handler.rollbackTopics[source.ordinal()] = step.rollbackTopic();
+                handler.stepSources[step.topic().ordinal()] = source;
+                handler.stepSources[step.rollbackTopic().ordinal()] = source;
+                handler.timeoutStatuses[step.topic().ordinal()] = ROLLBACK_PENDING;
+                handler.timeoutStatuses[step.rollbackTopic().ordinal()] = FAIL;
+                handler.joinBranches[source.ordinal()] = stage.size() > 1;
+                handler.register(source, SUCCESS, forwardTopics(stages, index + 1), isParallel(stages, index + 1));
+                handler.register(source, ROLLBACK_PENDING, List.of(step.rollbackTopic()), false);
+                handler.register(source, FAIL, rollbackTopics(stages, index - 1), false);
+            }
+            if (stage.size() > 1) {
+                handler.branchSources = stage.stream().map(SagaDefinition.SagaStep::source).toList();
+                handler.joinSuccessTopics = forwardTopics(stages, index + 1);
+                handler.joinRollbackTopics = rollbackTopics(stages, index - 1);
+            }
+        }
+        handler.validateCompleteness();
+        return handler;
+    }
+
+    public List<ETopics> getNextTopics(EEventSource source, ESagaStatus status) {
+        return transitions.get(index(source, status));
+    }
 
+    public boolean isFork(EEventSource source, ESagaStatus status) {
+        return forks[index(source, status)];
     }
 
-    public static final Object[][] SAGA_HANDLER = {
-            { ORCHESTRATOR, SUCCESS, PRODUCT_VALIDATION_SUCCESS },
-            { ORCHESTRATOR, FAIL, FINISH_FAIL },
+    public boolean isJoinBranch(EEventSource source) {
+        return joinBranches[source.ordinal()];
+    }
 
-            { PRODUCT_VALIDATION_SERVICE, ROLLBACK_PENDING, PRODUCT_VALIDATION_FAIL },
-            { PRODUCT_VALIDATION_SERVICE, FAIL, FINISH_FAIL },
-            { PRODUCT_VALIDATION_SERVICE, SUCCESS, PAYMENT_SUCCESS },
+    public ETopics getRollbackTopic(EEventSource source) {
+        return rollbackTopics[source.ordinal()];
+    }
 
-            { PAYMENT_SERVICE, ROLLBACK_PENDING, PAYMENT_FAIL },
-            { PAYMENT_SERVICE, FAIL, PRODUCT_VALIDATION_FAIL },
-            { PAYMENT_SERVICE, SUCCESS, INVENTORY_SUCCESS },
+    public ETopics getStepTopic(EEventSource source, ESagaStatus status) {
+        return FAIL.equals(status) ? rollbackTopics[source.ordinal()] : stepTopics[source.ordinal()];
+    }
 
-            { INVENTORY_SERVICE, ROLLBACK_PENDING, INVENTORY_FAIL },
-            { INVENTORY_SERVICE, FAIL, PAYMENT_FAIL },
-            { INVENTORY_SERVICE, SUCCESS, FINISH_SUCCESS }
-    };
+    public EEventSource getStepSource(ETopics topic) {
+        return stepSources[topic.ordinal()];
+    }
+
+    public ESagaStatus getTimeoutStatus(ETopics topic) {
+        return timeoutStatuses[topic.ordinal()];
+    }
+
+    public List<EEventSource> getBranchSources() {
+        return branchSources;
+    }
 
-    public static final int EVENT_SOURCE_INDEX = 0;
-    public static final int SAGA_STATUS_INDEX = 1;
-    public static final int TOPIC_INDEX = 2;
-}
\ No newline at end of file
+    public List<ETopics> getJoinSuccessTopics() {
+        return joinSuccessTopics;
+    }
+
+    public List<ETopics> getJoinRollbackTopics() {
+        return joinRollbackTopics;
+    }
+
+    private void register(EEventSource source, ESagaStatus status, List<ETopics> topics, boolean fork) {
+        var index = index(source, status);
+        if (transitions.get(index) != null) {
+            throw new IllegalStateException(String.format("Saga flow already has a transition for %s/%s", source, status));
+        }
+        transitions.set(index, topics);
+        forks[index] = fork;
+    }
+
+    private void validateCompleteness() {
+        var missing = new ArrayList<String>();
+        for (var source : EEventSource.values()) {
+            for (var status : ESagaStatus.values()) {
+                if (transitions.get(index(source, status)) == null) {
+                    missing.add(source + "/" + status);
+                }
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Saga flow has no topic for: ".concat(String.join(", ", missing)));
+        }
+    }
+
+    private static void validate(SagaDefinition definition) {
+        var stages = definition.stages();
+        if (stages.isEmpty()) {
+            throw new IllegalStateException("Saga flow must declare at least one stage");
+        }
+        var sources = EnumSet.noneOf(EEventSource.class);
+        var topics = EnumSet.noneOf(ETopics.class);
+        for (var index = 0; index < stages.size(); index++) {
+            var stage = stages.get(index);
+            if (stage.isEmpty()) {
+                throw new IllegalStateException("Saga flow stage " + index + " has no steps");
+            }
+            if (stage.size() > 1 && index < stages.size() - 1) {
+                throw new IllegalStateException("Only the last saga flow stage can run steps in parallel");
+            }
+            for (var step : stage) {
+                if (step.source() == null || step.topic() == null || step.rollbackTopic() == null) {
+                    throw new IllegalStateException("Saga flow step must inform source, topic and rollback topic: " + step);
+                }
+                if (ORCHESTRATOR.equals(step.source()) || !sources.add(step.source())) {
+                    throw new IllegalStateException("Saga flow source declared twice or reserved: " + step.source());
+                }
+                for (var topic : List.of(step.topic(), step.rollbackTopic())) {
+                    if (RESERVED_TOPICS.contains(topic) || !topics.add(topic)) {
+                        throw new IllegalStateException("Saga flow topic declared twice or reserved: " + topic);
+                    }
+                }
+            }
+        }
+    }
+
+    private static List<ETopics> forwardTopics(List<List<SagaDefinition.SagaStep>> stages, int index) {
+        return index < stages.size()
+                ? stages.get(index).stream().map(SagaDefinition.SagaStep::topic).toList()
+                : List.of(FINISH_SUCCESS);
+    }
+
+    private static List<ETopics> rollbackTopics(List<List<SagaDefinition.SagaStep>> stages, int index) {
+        return index >= 0
+                ? stages.get(index).stream().map(SagaDefinition.SagaStep::rollbackTopic).toList()
+                : List.of(FINISH_FAIL);
+    }
+
+    private static boolean isParallel(List<List<SagaDefinition.SagaStep>> stages, int index) {
+        return index < stages.size() && stages.get(index).size() > 1;
+    }
+
+    private static int index(EEventSource source, ESagaStatus status) {
+        return source.ordinal() * STATUS_COUNT + status.ordinal();
+    }
+}
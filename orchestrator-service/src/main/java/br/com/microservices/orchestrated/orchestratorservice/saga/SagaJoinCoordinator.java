@@ -0,0 +1,232 @@
+package br.com.microservices.orchestrated.orchestratorservice.saga;
+
+import br.com.microservices.orchestrated.orchestratorservice.config.exception.ValidationException;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Event;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.History;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
+import br.com.microservices.orchestrated.orchestratorservice.core.journal.SagaJoinReply;
+import br.com.microservices.orchestrated.orchestratorservice.core.journal.SagaJournal;
+import br.com.microservices.orchestrated.orchestratorservice.core.utils.EventCodec;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus.SUCCESS;
+
+/**
+ * Joins the replies of a parallel stage. Every reply taken by an open join is written to the
+ * {@link SagaJournal} before it is applied, and the join is closed there once it settles, so the
+ * open joins are rebuilt on startup by applying their journaled replies again. A reply only opens a join
+ * while the journaled saga is still at its fork; replies arriving after the join settled are dropped.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SagaJoinCoordinator {
+
+    private final Map<String, SagaJoin> joins = new ConcurrentHashMap<>();
+    private final SagaHandler sagaHandler;
+    private final SagaJournal sagaJournal;
+    private final EventCodec eventCodec;
+
+    @PostConstruct
+    public void recover() {
+        sagaJournal.findOpenJoins().forEach((transactionId, replies) -> {
+            var join = new SagaJoin();
+            replies.forEach(reply -> join.apply(eventOf(reply), new ArrayList<>()));
+            if (!join.isSettled()) {
+                joins.put(transactionId, join);
+            }
+        });
+        log.info("Rebuilt {} open saga joins from the journal", joins.size());
+    }
+
+    public void fork(String transactionId) {
+        joins.put(transactionId, new SagaJoin());
+        sagaJournal.closeJoin(transactionId);
+    }
+
+    public List<ETopics> join(Event event) {
+        var topics = new ArrayList<ETopics>();
+        var reply = new SagaJoinReply(event.getTransactionId(), event.getSource(), event.getStatus(),
+                eventCodec.encodeForJournal(event));
+        joins.compute(event.getTransactionId(), (transactionId, join) -> {
+            if (join == null && !isAtFork(transactionId)) {
+                log.warn("Dropping {} reply from {} for transactionId {}: its join has already settled",
+                        event.getStatus(), event.getSource(), transactionId);
+                return null;
+            }
+            var current = join == null ? new SagaJoin() : join;
+            sagaJournal.appendJoinReply(reply);
+            current.apply(event, topics);
+            if (current.isSettled()) {
+                sagaJournal.closeJoin(transactionId);
+                return null;
+            }
+            return current;
+        });
+        return topics;
+    }
+
+    /**
+     * Topics of the branches still waiting for an answer: the step topic of a pending branch and the rollback
+     * topic of a compensating one. Every branch is pending while no reply has opened the join yet.
+     */
+    public List<ETopics> findPendingTopics(String transactionId) {
+        var topics = new ArrayList<ETopics>();
+        joins.compute(transactionId, (id, join) -> {
+            if (join == null) {
+                sagaHandler.getBranchSources().forEach(source -> topics.add(sagaHandler.getStepTopic(source, SUCCESS)));
+            } else {
+                join.addPendingTopics(topics);
+            }
+            return join;
+        });
+        return topics;
+    }
+
+    public int countOpenJoins() {
+        return joins.size();
+    }
+
+    // a fork journals one state per branch step topic; any other state means the parallel stage is over
+    private boolean isAtFork(String transactionId) {
+        return sagaJournal
+                .findByTransactionId(transactionId)
+                .filter(state -> sagaHandler.getBranchSources().stream()
+                        .anyMatch(source -> sagaHandler.getStepTopic(source, SUCCESS).equals(state.currentTopic())))
+                .isPresent();
+    }
+
+    private Event eventOf(SagaJoinReply reply) {
+        if (reply.event().length > 0) {
+            try {
+                return eventCodec.decodeFromJournal(reply.event());
+            } catch (ValidationException e) {
+                log.warn("Journaled join reply of transactionId {} could not be read, rebuilding it without its body",
+                        reply.transactionId());
+            }
+        }
+        return Event
+                .builder()
+                .transactionId(reply.transactionId())
+                .source(reply.source())
+                .status(reply.status())
+                .build();
+    }
+
+    private enum BranchState {
+        PENDING,
+        SUCCEEDED,
+        COMPENSATING,
+        COMPENSATED
+    }
+
+    private final class SagaJoin {
+
+        private final Map<EEventSource, BranchState> branches = new EnumMap<>(EEventSource.class);
+        private final Map<EEventSource, Event> replies = new EnumMap<>(EEventSource.class);
+        private boolean failed;
+        private boolean settled;
+
+        private SagaJoin() {
+            sagaHandler.getBranchSources().forEach(source -> branches.put(source, BranchState.PENDING));
+        }
+
+        private void apply(Event event, List<ETopics> topics) {
+            var source = event.getSource();
+            var state = branches.get(source);
+            switch (event.getStatus()) {
+                case SUCCESS -> {
+                    if (state != BranchState.PENDING) {
+                        log.warn("Ignoring repeated success from {} for transactionId {}", source, event.getTransactionId());
+                        return;
+                    }
+                    replies.put(source, event);
+                    if (failed) {
+                        compensate(source, topics);
+                    } else {
+                        branches.put(source, BranchState.SUCCEEDED);
+                        settleWhenAll(BranchState.SUCCEEDED, event, sagaHandler.getJoinSuccessTopics(), topics);
+                    }
+                }
+                case ROLLBACK_PENDING -> {
+                    if (state != BranchState.PENDING) {
+                        return;
+                    }
+                    failed = true;
+                    replies.put(source, event);
+                    compensate(source, topics);
+                    branches.forEach((other, otherState) -> {
+                        if (otherState == BranchState.SUCCEEDED) {
+                            compensate(other, topics);
+                        }
+                    });
+                }
+                case FAIL -> {
+                    if (state == BranchState.COMPENSATED) {
+                        return;
+                    }
+                    failed = true;
+                    replies.put(source, event);
+                    branches.put(source, BranchState.COMPENSATED);
+                    settleWhenAll(BranchState.COMPENSATED, event, sagaHandler.getJoinRollbackTopics(), topics);
+                }
+            }
+        }
+
+        private void addPendingTopics(List<ETopics> topics) {
+            branches.forEach((source, state) -> {
+                if (state == BranchState.PENDING) {
+                    topics.add(sagaHandler.getStepTopic(source, SUCCESS));
+                } else if (state == BranchState.COMPENSATING) {
+                    topics.add(sagaHandler.getRollbackTopic(source));
+                }
+            });
+        }
+
+        private void compensate(EEventSource source, List<ETopics> topics) {
+            branches.put(source, BranchState.COMPENSATING);
+            topics.add(sagaHandler.getRollbackTopic(source));
+        }
+
+        private void settleWhenAll(BranchState expected, Event event, List<ETopics> next, List<ETopics> topics) {
+            if (branches.values().stream().allMatch(expected::equals)) {
+                merge(event);
+                topics.addAll(next);
+                settled = true;
+            }
+        }
+
+        private void merge(Event target) {
+            replies.values().forEach(reply -> {
+                if (reply == target) {
+                    return;
+                }
+                if (target.getPayload() != null && reply.getPayload() != null
+                        && target.getPayload().getTotalItems() == 0) {
+                    target.getPayload().setTotalAmount(reply.getPayload().getTotalAmount());
+                    target.getPayload().setTotalItems(reply.getPayload().getTotalItems());
+                }
+                Optional.ofNullable(reply.getEventHistory())
+                        .orElse(List.of())
+                        .stream()
+                        .filter(history -> target.getEventHistory() == null || !target.getEventHistory().contains(history))
+                        .forEach(target::addHistory);
+            });
+            if (target.getEventHistory() != null) {
+                target.getEventHistory().sort(Comparator.comparing(History::getCreatedAt,
+                        Comparator.nullsFirst(Comparator.naturalOrder())));
+            }
+        }
+
+        private boolean isSettled() {
+            return settled;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.dedup;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    private static final int EXPECTED_INSERTIONS = 10_000;
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+
+    private final BloomFilter bloomFilter = new BloomFilter(EXPECTED_INSERTIONS, FALSE_POSITIVE_PROBABILITY);
+
+    @Test
+    void containsEveryInsertedKey() {
+        IntStream.range(0, EXPECTED_INSERTIONS).forEach(index -> bloomFilter.put("inserted-" + index));
+
+        assertThat(IntStream.range(0, EXPECTED_INSERTIONS)).allMatch(index -> bloomFilter.mightContain("inserted-" + index));
+    }
+
+    @Test
+    void keepsTheFalsePositiveRateCloseToTheConfiguredProbability() {
+        IntStream.range(0, EXPECTED_INSERTIONS).forEach(index -> bloomFilter.put("inserted-" + index));
+
+        var lookups = 100_000;
+        var falsePositives = IntStream.range(0, lookups).filter(index -> bloomFilter.mightContain("absent-" + index)).count();
+
+        assertThat((double) falsePositives / lookups).isLessThan(2 * FALSE_POSITIVE_PROBABILITY);
+    }
+
+    @Test
+    void doesNotContainKeysOfAnEmptyFilter() {
+        assertThat(IntStream.range(0, 1_000)).noneMatch(index -> bloomFilter.mightContain("absent-" + index));
+    }
+}
@@ -0,0 +1,41 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.dedup;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RotatingBloomFilterTest {
+
+    private static final int GENERATION_SIZE = 1_000;
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+
+    private final RotatingBloomFilter bloomFilter = new RotatingBloomFilter(GENERATION_SIZE, FALSE_POSITIVE_PROBABILITY);
+
+    @Test
+    void keepsTheKeysOfThePreviousGeneration() {
+        put("first", GENERATION_SIZE);
+        put("second", GENERATION_SIZE - 1);
+
+        assertThat(IntStream.range(0, GENERATION_SIZE)).allMatch(index -> bloomFilter.mightContain("first-" + index));
+        assertThat(IntStream.range(0, GENERATION_SIZE - 1)).allMatch(index -> bloomFilter.mightContain("second-" + index));
+    }
+
+    @Test
+    void dropsTheKeysOfTheOldestGenerationOnRotation() {
+        put("first", GENERATION_SIZE);
+        put("second", GENERATION_SIZE);
+        put("third", GENERATION_SIZE - 1);
+
+        var remaining = IntStream.range(0, GENERATION_SIZE).filter(index -> bloomFilter.mightContain("first-" + index)).count();
+
+        assertThat((double) remaining / GENERATION_SIZE).isLessThan(4 * FALSE_POSITIVE_PROBABILITY);
+        assertThat(IntStream.range(0, GENERATION_SIZE)).allMatch(index -> bloomFilter.mightContain("second-" + index));
+        assertThat(IntStream.range(0, GENERATION_SIZE - 1)).allMatch(index -> bloomFilter.mightContain("third-" + index));
+    }
+
+    private void put(String prefix, int count) {
+        IntStream.range(0, count).forEach(index -> bloomFilter.put(prefix + "-" + index));
+    }
+}
@@ -0,0 +1,115 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.dedup;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.SagaMetadata;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource;
+import br.com.microservices.orchestrated.orchestratorservice.core.journal.SagaJoinReply;
+import br.com.microservices.orchestrated.orchestratorservice.core.journal.SagaJournal;
+import br.com.microservices.orchestrated.orchestratorservice.core.journal.SagaState;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.INVENTORY_SERVICE;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.ORCHESTRATOR;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.PAYMENT_SERVICE;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus.FAIL;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus.SUCCESS;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics.BASE_ORCHESTRATOR;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics.PAYMENT_SUCCESS;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics.PRODUCT_VALIDATION_SUCCESS;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics.START_SAGA;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SagaEventDeduplicatorTest {
+
+    private static final long EXPECTED_INSERTIONS = 10_000;
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+    private static final int LRU_SIZE = 100;
+
+    @TempDir
+    Path directory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SagaJournal sagaJournal;
+    private SagaEventDeduplicator deduplicator;
+
+    @BeforeEach
+    void openJournal() throws IOException {
+        sagaJournal = new SagaJournal(directory.toString(), 1024 * 1024, Duration.ofHours(1).toMillis(), 100);
+        sagaJournal.recover();
+        deduplicator = deduplicator(LRU_SIZE);
+    }
+
+    @AfterEach
+    void closeJournal() {
+        sagaJournal.close();
+    }
+
+    @Test
+    void detectsRecordedKeysAsDuplicates() {
+        var key = key("tx-1", PAYMENT_SERVICE);
+        deduplicator.record(List.of(key));
+
+        assertThat(deduplicator.isDuplicate(key)).isTrue();
+        assertThat(deduplicator.isDuplicate(key("tx-2", PAYMENT_SERVICE))).isFalse();
+        assertThat(lookups("duplicate")).isEqualTo(1);
+        assertThat(lookups("miss")).isEqualTo(1);
+    }
+
+    @Test
+    void keepsTheSameTransactionApartByTopicSourceAndStatus() {
+        deduplicator.record(List.of(key("tx-1", PAYMENT_SERVICE)));
+
+        assertThat(deduplicator.isDuplicate(key("tx-1", INVENTORY_SERVICE))).isFalse();
+        assertThat(deduplicator.isDuplicate(deduplicator.keyOf(
+                BASE_ORCHESTRATOR, new SagaMetadata("tx-1", "order", PAYMENT_SERVICE, FAIL)))).isFalse();
+        assertThat(deduplicator.isDuplicate(deduplicator.keyOf(
+                START_SAGA, new SagaMetadata("tx-1", "order", PAYMENT_SERVICE, SUCCESS)))).isFalse();
+    }
+
+    @Test
+    void countsKeysPushedOutOfTheLruAsEvicted() {
+        deduplicator = deduplicator(2);
+        deduplicator.record(List.of(key("tx-1", PAYMENT_SERVICE), key("tx-2", PAYMENT_SERVICE), key("tx-3", PAYMENT_SERVICE)));
+
+        assertThat(deduplicator.isDuplicate(key("tx-1", PAYMENT_SERVICE))).isFalse();
+        assertThat(deduplicator.isDuplicate(key("tx-3", PAYMENT_SERVICE))).isTrue();
+        assertThat(lookups("evicted")).isEqualTo(1);
+        assertThat(lookups("duplicate")).isEqualTo(1);
+        assertThat(lookups("false_positive")).isZero();
+    }
+
+    @Test
+    void seedsTheLastRoutedEventOfEveryLiveSagaFromTheJournal() {
+        sagaJournal.append(new SagaState("tx-start", "order-start", ORCHESTRATOR, SUCCESS, PRODUCT_VALIDATION_SUCCESS, Instant.now()));
+        sagaJournal.append(new SagaState("tx-fork", "order-fork", PAYMENT_SERVICE, SUCCESS, PAYMENT_SUCCESS, Instant.now()));
+        sagaJournal.appendJoinReply(new SagaJoinReply("tx-fork", INVENTORY_SERVICE, SUCCESS, new byte[]{1}));
+
+        deduplicator.recover();
+
+        assertThat(deduplicator.isDuplicate(deduplicator.keyOf(
+                START_SAGA, new SagaMetadata("tx-start", "order-start", null, null)))).isTrue();
+        assertThat(deduplicator.isDuplicate(key("tx-fork", PAYMENT_SERVICE))).isTrue();
+        assertThat(deduplicator.isDuplicate(key("tx-fork", INVENTORY_SERVICE))).isTrue();
+    }
+
+    private SagaEventDeduplicator deduplicator(int lruSize) {
+        return new SagaEventDeduplicator(sagaJournal, meterRegistry, EXPECTED_INSERTIONS, FALSE_POSITIVE_PROBABILITY, lruSize);
+    }
+
+    private String key(String transactionId, EEventSource source) {
+        return deduplicator.keyOf(BASE_ORCHESTRATOR, new SagaMetadata(transactionId, "order", source, SUCCESS));
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get("saga.dedup.lookups").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,205 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.journal;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.INVENTORY_SERVICE;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.ORCHESTRATOR;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.PAYMENT_SERVICE;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus.SUCCESS;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics.NOTIFY_ENDING;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics.PAYMENT_SUCCESS;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics.PRODUCT_VALIDATION_SUCCESS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SagaJournalTest {
+
+    private static final int SEGMENT_SIZE = 1024 * 1024;
+    private static final long LIVE_SAGA_MAX_AGE = Duration.ofHours(1).toMillis();
+    private static final int FINISHED_SAGA_CAPACITY = 100;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoversLiveSagasAndOpenJoinsFromTheSegments() throws IOException {
+        var journal = open(SEGMENT_SIZE);
+        journal.append(state("tx-1", PRODUCT_VALIDATION_SUCCESS));
+        journal.append(state("tx-1", PAYMENT_SUCCESS));
+        journal.append(state("tx-2", PRODUCT_VALIDATION_SUCCESS));
+        journal.appendJoinReply(reply("tx-1", PAYMENT_SERVICE));
+        journal.close();
+
+        var recovered = open(SEGMENT_SIZE);
+
+        assertThat(recovered.countLiveSagas()).isEqualTo(2);
+        assertThat(recovered.findByTransactionId("tx-1")).hasValueSatisfying(state ->
+                assertThat(state.currentTopic()).isEqualTo(PAYMENT_SUCCESS));
+        assertThat(recovered.findOpenJoins()).containsOnlyKeys("tx-1");
+        assertThat(recovered.findOpenJoins().get("tx-1")).singleElement().satisfies(reply -> {
+            assertThat(reply.source()).isEqualTo(PAYMENT_SERVICE);
+            assertThat(reply.event()).containsExactly(1, 2, 3);
+        });
+    }
+
+    @Test
+    void keepsFinishedSagasOutOfTheLiveOnesAfterReplay() throws IOException {
+        var journal = open(SEGMENT_SIZE);
+        journal.append(state("tx-1", PAYMENT_SUCCESS));
+        journal.appendJoinReply(reply("tx-1", PAYMENT_SERVICE));
+        journal.append(state("tx-1", NOTIFY_ENDING));
+        journal.close();
+
+        var recovered = open(SEGMENT_SIZE);
+
+        assertThat(recovered.findByTransactionId("tx-1")).isEmpty();
+        assertThat(recovered.findOpenJoins()).isEmpty();
+        assertThat(recovered.findFinishedByTransactionId("tx-1")).hasValueSatisfying(state ->
+                assertThat(state.currentTopic()).isEqualTo(NOTIFY_ENDING));
+    }
+
+    @Test
+    void truncatesTheJournalAtACorruptedRecord() throws IOException {
+        var journal = open(SEGMENT_SIZE);
+        journal.append(state("tx-1", PRODUCT_VALIDATION_SUCCESS));
+        journal.append(state("tx-2", PRODUCT_VALIDATION_SUCCESS));
+        journal.append(state("tx-3", PRODUCT_VALIDATION_SUCCESS));
+        journal.close();
+        corruptSecondRecord(onlySegment());
+
+        var recovered = open(SEGMENT_SIZE);
+
+        assertThat(recovered.findLiveSagas()).extracting(SagaState::transactionId).containsExactly("tx-1");
+
+        recovered.append(state("tx-4", PRODUCT_VALIDATION_SUCCESS));
+        recovered.close();
+
+        assertThat(open(SEGMENT_SIZE).findLiveSagas())
+                .extracting(SagaState::transactionId)
+                .containsExactlyInAnyOrder("tx-1", "tx-4");
+    }
+
+    @Test
+    void rollsSegmentsAndReplaysThemInOrder() throws IOException {
+        var journal = open(256);
+        IntStream.range(0, 20).forEach(index -> journal.append(state("tx-" + index, PRODUCT_VALIDATION_SUCCESS)));
+        journal.append(state("tx-0", NOTIFY_ENDING));
+        journal.close();
+
+        assertThat(segments()).hasSizeGreaterThan(1);
+
+        var recovered = open(256);
+
+        assertThat(recovered.countLiveSagas()).isEqualTo(19);
+        assertThat(recovered.findByTransactionId("tx-0")).isEmpty();
+        assertThat(recovered.findByTransactionId("tx-19")).isPresent();
+    }
+
+    @Test
+    void replaysOnlyTheRecordsAfterTheSnapshotAndDeletesOlderSegments() throws IOException {
+        var journal = open(256);
+        IntStream.range(0, 20).forEach(index -> journal.append(state("tx-" + index, PRODUCT_VALIDATION_SUCCESS)));
+        journal.appendJoinReply(reply("tx-1", PAYMENT_SERVICE));
+        var segmentsBeforeSnapshot = segments().size();
+        journal.snapshot();
+
+        assertThat(segments()).hasSizeLessThan(segmentsBeforeSnapshot);
+
+        journal.append(state("tx-0", NOTIFY_ENDING));
+        journal.appendJoinReply(reply("tx-1", INVENTORY_SERVICE));
+        journal.close();
+
+        var recovered = open(256);
+
+        assertThat(recovered.countLiveSagas()).isEqualTo(19);
+        assertThat(recovered.findByTransactionId("tx-0")).isEmpty();
+        assertThat(recovered.findOpenJoins().get("tx-1"))
+                .extracting(SagaJoinReply::source)
+                .containsExactly(PAYMENT_SERVICE, INVENTORY_SERVICE);
+    }
+
+    @Test
+    void replaysClosedJoins() throws IOException {
+        var journal = open(SEGMENT_SIZE);
+        journal.append(state("tx-1", PAYMENT_SUCCESS));
+        journal.append(state("tx-2", PAYMENT_SUCCESS));
+        journal.appendJoinReply(reply("tx-1", PAYMENT_SERVICE));
+        journal.appendJoinReply(reply("tx-1", INVENTORY_SERVICE));
+        journal.appendJoinReply(reply("tx-2", PAYMENT_SERVICE));
+        journal.closeJoin("tx-1");
+        journal.close();
+
+        var recovered = open(SEGMENT_SIZE);
+
+        assertThat(recovered.findOpenJoins()).containsOnlyKeys("tx-2");
+        assertThat(recovered.countLiveSagas()).isEqualTo(2);
+    }
+
+    @Test
+    void replaysExpiredSagasWhenTheSnapshotWasNotWritten() throws IOException {
+        var journal = open(SEGMENT_SIZE);
+        journal.append(new SagaState("tx-stale", "order", ORCHESTRATOR, SUCCESS, PAYMENT_SUCCESS,
+                Instant.now().minus(Duration.ofHours(2))));
+        journal.appendJoinReply(reply("tx-stale", PAYMENT_SERVICE));
+        journal.append(state("tx-live", PAYMENT_SUCCESS));
+        // a directory in place of the temporary snapshot file makes the snapshot fail after the expiry is journaled
+        Files.createDirectory(directory.resolve("snapshot.tmp"));
+        journal.snapshot();
+        journal.close();
+
+        assertThat(directory.resolve("snapshot.bin")).doesNotExist();
+
+        var recovered = open(SEGMENT_SIZE);
+
+        assertThat(recovered.findLiveSagas()).extracting(SagaState::transactionId).containsExactly("tx-live");
+        assertThat(recovered.findOpenJoins()).isEmpty();
+    }
+
+    private SagaJournal open(int segmentSize) throws IOException {
+        var journal = new SagaJournal(directory.toString(), segmentSize, LIVE_SAGA_MAX_AGE, FINISHED_SAGA_CAPACITY);
+        journal.recover();
+        return journal;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+    }
+
+    private Path onlySegment() throws IOException {
+        var segments = segments();
+        assertThat(segments).hasSize(1);
+        return segments.get(0);
+    }
+
+    private static void corruptSecondRecord(Path segment) throws IOException {
+        try (var file = new RandomAccessFile(segment.toFile(), "rw")) {
+            var secondRecord = 2 * Integer.BYTES + file.readInt();
+            var bodyStart = secondRecord + 2 * Integer.BYTES;
+            file.seek(bodyStart + 1);
+            var value = file.readByte();
+            file.seek(bodyStart + 1);
+            file.writeByte(value ^ 0xFF);
+        }
+    }
+
+    private static SagaState state(String transactionId, ETopics topic) {
+        return new SagaState(transactionId, "order-" + transactionId, ORCHESTRATOR, SUCCESS, topic, Instant.now());
+    }
+
+    private static SagaJoinReply reply(String transactionId, EEventSource source) {
+        return new SagaJoinReply(transactionId, source, SUCCESS, new byte[]{1, 2, 3});
+    }
+}
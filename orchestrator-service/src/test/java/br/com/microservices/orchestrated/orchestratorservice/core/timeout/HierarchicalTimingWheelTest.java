@@ -0,0 +1,126 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.timeout;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HierarchicalTimingWheelTest {
+
+    private static final long TICK = 10;
+    private static final int WHEEL_SIZE = 4;
+    private static final int LEVELS = 3;
+
+    private final HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, WHEEL_SIZE, LEVELS, 0);
+
+    @Test
+    void firesOnTheFirstTickAtOrAfterTheDeadline() {
+        wheel.add("timeout", 25);
+
+        assertThat(wheel.advance(20)).isEmpty();
+        assertThat(wheel.advance(29)).isEmpty();
+        assertThat(wheel.advance(30)).containsExactly("timeout");
+        assertThat(wheel.advance(100)).isEmpty();
+    }
+
+    @Test
+    void cascadesEntriesFromTheHigherLevels() {
+        wheel.add("level-1", 130);
+        wheel.add("level-2", 630);
+
+        assertThat(wheel.advance(120)).isEmpty();
+        assertThat(wheel.advance(130)).containsExactly("level-1");
+        assertThat(wheel.advance(620)).isEmpty();
+        assertThat(wheel.advance(630)).containsExactly("level-2");
+    }
+
+    @Test
+    void keepsEntriesBeyondTheTopLevelUntilTheirDeadline() {
+        var horizon = TICK * WHEEL_SIZE * WHEEL_SIZE * WHEEL_SIZE;
+        wheel.add("far", 5 * horizon + 70);
+
+        assertThat(wheel.advance(5 * horizon + 60)).isEmpty();
+        assertThat(wheel.advance(5 * horizon + 70)).containsExactly("far");
+    }
+
+    @Test
+    void firesAPastExpirationOnTheNextTick() {
+        wheel.advance(500);
+        wheel.add("late", 100);
+
+        assertThat(wheel.advance(509)).isEmpty();
+        assertThat(wheel.advance(510)).containsExactly("late");
+    }
+
+    @Test
+    void doesNotFireCancelledEntries() {
+        var cancelled = wheel.add("cancelled", 300);
+        wheel.add("kept", 300);
+
+        assertThat(wheel.cancel(cancelled)).isTrue();
+        assertThat(wheel.cancel(cancelled)).isFalse();
+        assertThat(wheel.advance(300)).containsExactly("kept");
+    }
+
+    @Test
+    void doesNotCancelEntriesThatAlreadyFired() {
+        var fired = wheel.add("fired", 20);
+
+        assertThat(wheel.advance(20)).containsExactly("fired");
+        assertThat(wheel.cancel(fired)).isFalse();
+    }
+
+    @Test
+    void rejectsAWheelSizeThatIsNotAPowerOfTwo() {
+        assertThatThrownBy(() -> new HierarchicalTimingWheel<String>(TICK, 6, LEVELS, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void matchesABruteForceScheduleUnderRandomOperations() {
+        var random = new Random(42);
+        var timeouts = new HashMap<Integer, HierarchicalTimingWheel.Timeout<Integer>>();
+        var fireAt = new HashMap<Integer, Long>();
+        var randomWheel = new HierarchicalTimingWheel<Integer>(TICK, WHEEL_SIZE, LEVELS, 0);
+        var now = 0L;
+        for (var value = 0; value < 5_000; value++) {
+            var expiration = now + random.nextInt(3_000) - 100;
+            timeouts.put(value, randomWheel.add(value, expiration));
+            fireAt.put(value, Math.max(ceilToTick(expiration), now - now % TICK + TICK));
+            if (random.nextInt(4) == 0) {
+                var cancelled = random.nextInt(value + 1);
+                assertThat(randomWheel.cancel(timeouts.get(cancelled))).isEqualTo(fireAt.remove(cancelled) != null);
+            }
+            if (random.nextInt(3) == 0) {
+                now += random.nextInt(60);
+                assertThat(randomWheel.advance(now)).containsExactlyInAnyOrderElementsOf(expired(fireAt, now));
+            }
+        }
+        now += 10 * TICK * WHEEL_SIZE * WHEEL_SIZE * WHEEL_SIZE;
+        assertThat(randomWheel.advance(now)).containsExactlyInAnyOrderElementsOf(expired(fireAt, now));
+        assertThat(fireAt).isEmpty();
+    }
+
+    private static List<Integer> expired(Map<Integer, Long> fireAt, long now) {
+        var currentTime = now - now % TICK;
+        var expired = new ArrayList<Integer>();
+        fireAt.entrySet().removeIf(entry -> {
+            if (entry.getValue() > currentTime) {
+                return false;
+            }
+            expired.add(entry.getKey());
+            return true;
+        });
+        return expired;
+    }
+
+    private static long ceilToTick(long time) {
+        return Math.floorDiv(time + TICK - 1, TICK) * TICK;
+    }
+}
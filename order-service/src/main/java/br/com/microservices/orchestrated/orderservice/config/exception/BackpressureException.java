@@ -0,0 +1,17 @@
+package br.com.microservices.orchestrated.orderservice.config.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@Getter
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class BackpressureException extends RuntimeException {
+
+    private final long queueDepth;
+
+    public BackpressureException(String message, long queueDepth) {
+        super(message);
+        this.queueDepth = queueDepth;
+    }
+}
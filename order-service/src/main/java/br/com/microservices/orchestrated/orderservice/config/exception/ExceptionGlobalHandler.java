@@ -1,10 +1,13 @@
 package br.com.microservices.orchestrated.orderservice.config.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import static br.com.microservices.orchestrated.orderservice.core.admission.SagaBacklogMonitor.QUEUE_DEPTH_HEADER;
+
 @ControllerAdvice
 public class ExceptionGlobalHandler {
 
@@ -13,4 +16,14 @@ public class ExceptionGlobalHandler {
         var details = new ExceptionDetails(HttpStatus.BAD_REQUEST.value(), validationException.getMessage());
         return new ResponseEntity<>(details, HttpStatus.BAD_REQUEST);
     }
+
+    @ExceptionHandler(BackpressureException.class)
+    public ResponseEntity<?> handleBackpressureException(BackpressureException backpressureException) {
+        var details = new ExceptionDetails(HttpStatus.TOO_MANY_REQUESTS.value(), backpressureException.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .header(QUEUE_DEPTH_HEADER, String.valueOf(backpressureException.getQueueDepth()))
+                .body(details);
+    }
 }
@@ -1,83 +1,158 @@
 package br.com.microservices.orchestrated.orderservice.config.kafka;
 
+import br.com.microservices.orchestrated.orderservice.config.exception.ValidationException;
+import br.com.microservices.orchestrated.orderservice.core.document.Event;
+import br.com.microservices.orchestrated.orderservice.core.enums.EProducerProfile;
+import br.com.microservices.orchestrated.orderservice.core.utils.EventCodec;
 import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.support.TaskExecutorAdapter;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationBuilder;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Executors;
 
 @EnableKafka
 @Configuration
 @RequiredArgsConstructor
 public class KafkaConfig {
 
-    private static final Integer PARTITION_COUNT = 1;
     private static final Integer REPLICA_COUNT = 1;
+    private static final String TOPIC_PARTITIONS_PROPERTY = "spring.kafka.partitions.";
+
+    private final Environment environment;
+    private final EventCodec eventCodec;
 
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Value("${spring.kafka.producer-profile}")
+    private EProducerProfile producerProfile;
+
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
     @Value("${spring.kafka.consumer.auto-offset-reset}")
     private String autoOffsetReset;
 
+    @Value("${spring.kafka.partitions.default}")
+    private Integer defaultPartitionCount;
+
+    @Value("${spring.kafka.listener.concurrency}")
+    private Integer listenerConcurrency;
+
+    @Value("${spring.threads.virtual.enabled}")
+    private boolean virtualThreads;
+
+    @Value("${spring.kafka.retry.attempts}")
+    private Integer retryAttempts;
+
+    @Value("${spring.kafka.retry.initial-interval}")
+    private Long retryInitialInterval;
+
+    @Value("${spring.kafka.retry.multiplier}")
+    private Double retryMultiplier;
+
+    @Value("${spring.kafka.retry.max-interval}")
+    private Long retryMaxInterval;
+
     @Value("${spring.kafka.topic.start-saga}")
     private String startSagaTopic;
 
     @Value("${spring.kafka.topic.notify-ending}")
     private String notifyEndingTopi;
+
+    @Value("${spring.kafka.topic.history-spill}")
+    private String historySpillTopic;
+
     @Bean
-    public ConsumerFactory<String, String> consumerFactory() {
-        return new DefaultKafkaConsumerFactory<>(consumerConfigs());
+    public ConsumerFactory<String, Event> consumerFactory() {
+        return new DefaultKafkaConsumerFactory<>(consumerConfigs(), new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(new EventDeserializer(eventCodec)));
     }
 
     private Map<String, Object> consumerConfigs() {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
-        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, autoOffsetReset);
         return props;
     }
 
     @Bean
-    public ProducerFactory<String, String> producerFactory() {
-        return new DefaultKafkaProducerFactory<>(producerProps()) ;
+    public ConcurrentKafkaListenerContainerFactory<String, Event> kafkaListenerContainerFactory(
+            ConsumerFactory<String, Event> consumerFactory) {
+        var factory = new ConcurrentKafkaListenerContainerFactory<String, Event>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setConcurrency(listenerConcurrency);
+        if (virtualThreads) {
+            factory.getContainerProperties().setListenerTaskExecutor(new TaskExecutorAdapter(
+                    Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("kafka-vt-", 0).factory())));
+        }
+        return factory;
+    }
+
+    @Bean
+    public ProducerFactory<String, Object> producerFactory() {
+        return new DefaultKafkaProducerFactory<>(producerProps(), new StringSerializer(),
+                new DelegatingByTypeSerializer(Map.of(
+                        byte[].class, new ByteArraySerializer(),
+                        Event.class, new EventSerializer(eventCodec))));
     }
 
     private Map<String, Object> producerProps() {
         Map<String, Object> props = new HashMap<>();
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.putAll(producerProfile.getProperties());
         return props;
     }
 
     @Bean
-    public KafkaTemplate<String, String> kafkaTemplate(ProducerFactory<String, String> producerFactory) {
-        return new KafkaTemplate<>(producerFactory());
+    public KafkaTemplate<String, Object> kafkaTemplate(ProducerFactory<String, Object> producerFactory) {
+        return new KafkaTemplate<>(producerFactory);
+    }
+
+    @Bean
+    public RetryTopicConfiguration retryTopicConfiguration(KafkaTemplate<String, Object> kafkaTemplate) {
+        return RetryTopicConfigurationBuilder
+                .newInstance()
+                .maxAttempts(retryAttempts)
+                .exponentialBackoff(retryInitialInterval, retryMultiplier, retryMaxInterval)
+                .notRetryOn(ValidationException.class)
+                .traversingCauses()
+                .suffixTopicsWithIndexValues()
+                .autoCreateTopicsWith(defaultPartitionCount, REPLICA_COUNT.shortValue())
+                .create(kafkaTemplate);
     }
 
     private NewTopic buildTopic(String topicName) {
         return TopicBuilder.name(topicName)
-                .partitions(PARTITION_COUNT)
+                .partitions(partitionCountOf(topicName))
                 .replicas(REPLICA_COUNT)
                 .build();
     }
 
+    private Integer partitionCountOf(String topicName) {
+        return environment.getProperty(TOPIC_PARTITIONS_PROPERTY.concat(topicName), Integer.class, defaultPartitionCount);
+    }
+
     @Bean
     public NewTopic startSagaTopic() {
         return buildTopic(startSagaTopic);
@@ -86,4 +161,9 @@ public class KafkaConfig {
     public NewTopic notifyEndingTopic() {
         return buildTopic(notifyEndingTopi);
     }
+
+    @Bean
+    public NewTopic historySpillTopic() {
+        return buildTopic(historySpillTopic);
+    }
 }
@@ -0,0 +1,24 @@
+package br.com.microservices.orchestrated.orderservice.config.thread;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Serves each Tomcat request on its own virtual thread when {@code spring.threads.virtual.enabled} is set, so a
+ * request blocked on Mongo no longer holds one of the 200 platform worker threads. The Kafka listener containers
+ * follow the same flag in {@code KafkaConfig}.
+ */
+@Configuration
+@ConditionalOnProperty(value = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-vt-", 0).factory()));
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.microservices.orchestrated.orderservice.core.admission;
+
+import br.com.microservices.orchestrated.orderservice.config.exception.BackpressureException;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Tracks how many start-saga records the orchestrator has not consumed yet. The orchestrator pauses
+ * that listener when its admission limit is reached, so a growing backlog is the signal to shed orders here.
+ */
+@Slf4j
+@Component
+public class SagaBacklogMonitor {
+
+    public static final String QUEUE_DEPTH_HEADER = "X-Saga-Queue-Depth";
+
+    private final AdminClient adminClient;
+    private final String startSagaTopic;
+    private final String orchestratorGroup;
+    private final long maxBacklog;
+    private final long requestTimeout;
+
+    @Getter
+    private volatile long backlog;
+
+    public SagaBacklogMonitor(@Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
+                              @Value("${spring.kafka.topic.start-saga}") String startSagaTopic,
+                              @Value("${saga.admission.orchestrator-group}") String orchestratorGroup,
+                              @Value("${saga.admission.max-backlog}") long maxBacklog,
+                              @Value("${saga.admission.request-timeout}") long requestTimeout) {
+        this.adminClient = AdminClient.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers));
+        this.startSagaTopic = startSagaTopic;
+        this.orchestratorGroup = orchestratorGroup;
+        this.maxBacklog = maxBacklog;
+        this.requestTimeout = requestTimeout;
+    }
+
+    public void checkAdmission() {
+        var depth = backlog;
+        if (depth >= maxBacklog) {
+            throw new BackpressureException("Saga pipeline is saturated, try again later.", depth);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${saga.admission.refresh-interval}")
+    public void refresh() {
+        try {
+            var committed = adminClient
+                    .listConsumerGroupOffsets(orchestratorGroup)
+                    .partitionsToOffsetAndMetadata()
+                    .get(requestTimeout, TimeUnit.MILLISECONDS)
+                    .entrySet()
+                    .stream()
+                    .filter(entry -> startSagaTopic.equals(entry.getKey().topic()) && entry.getValue() != null)
+                    .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().offset()));
+            if (committed.isEmpty()) {
+                backlog = 0;
+                return;
+            }
+            var latest = adminClient
+                    .listOffsets(committed
+                            .keySet()
+                            .stream()
+                            .collect(Collectors.toMap(partition -> partition, partition -> OffsetSpec.latest())))
+                    .all()
+                    .get(requestTimeout, TimeUnit.MILLISECONDS);
+            backlog = committed
+                    .entrySet()
+                    .stream()
+                    .mapToLong(entry -> Math.max(0, latest.get(entry.getKey()).offset() - entry.getValue()))
+                    .sum();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Error trying to read the start-saga backlog of group {}: {}", orchestratorGroup, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        adminClient.close();
+    }
+}
@@ -1,12 +1,15 @@
 package br.com.microservices.orchestrated.orderservice.core.consumer;
 
+import br.com.microservices.orchestrated.orderservice.core.document.Event;
 import br.com.microservices.orchestrated.orderservice.core.service.EventService;
-import br.com.microservices.orchestrated.orderservice.core.utils.JsonUtil;
+import br.com.microservices.orchestrated.orderservice.core.utils.SagaLogger;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 
 @Slf4j
@@ -15,15 +18,24 @@ import org.springframework.stereotype.Component;
 public class EventConsumer {
 
     private final EventService eventService;
-    private final JsonUtil jsonUtil;;
+    private final SagaLogger sagaLogger;
 
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
             topics = "${spring.kafka.topic.notify-ending}"
     )
-    public void consumeNotifyEndingEvebt(String payload) {
-        log.info("Receiving ending notification event {} from notify-send topic", payload);
-        var event = jsonUtil.toEvent(payload);
+    public void consumeNotifyEndingEvebt(Event event, @Header(KafkaHeaders.RECEIVED_TOPIC) String topic) {
+        sagaLogger.receiving(topic, event);
         eventService.notifyEvent(event);
     }
+
+    @KafkaListener(
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "${spring.kafka.topic.history-spill}"
+    )
+    public void consumeHistorySpillEvent(Event event) {
+        log.info("Receiving {} spilled history entries of transactionId {} from history-spill topic",
+                event.getEventHistory() == null ? 0 : event.getEventHistory().size(), event.getTransactionId());
+        eventService.spillHistory(event);
+    }
 }
@@ -2,28 +2,90 @@ package br.com.microservices.orchestrated.orderservice.core.controller;
 
 import br.com.microservices.orchestrated.orderservice.core.document.Event;
 import br.com.microservices.orchestrated.orderservice.core.dto.EventFilters;
-import br.com.microservices.orchestrated.orderservice.core.dto.OrderRequest;
+import br.com.microservices.orchestrated.orderservice.core.dto.EventPage;
+import br.com.microservices.orchestrated.orderservice.core.dto.EventSearchFilters;
 import br.com.microservices.orchestrated.orderservice.core.service.EventService;
-import br.com.microservices.orchestrated.orderservice.core.service.OrderService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 
 @RestController
 @AllArgsConstructor
 @RequestMapping("/api/event")
 public class EventController {
 
+    private static final SerializedString NDJSON_SEPARATOR = new SerializedString("\n");
+
     private final EventService eventService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
     public Event findByFilters(EventFilters filters) {
         return eventService.findByFilters(filters);
     }
 
-    @GetMapping("/all")
-    public List<Event> findAll() {
-        return eventService.findAll();
+    @GetMapping("/page")
+    public EventPage findPage(@RequestParam(required = false) String cursor,
+                              @RequestParam(required = false) Integer size) {
+        return eventService.findPage(cursor, size);
+    }
+
+    @GetMapping("/search")
+    public EventPage search(EventSearchFilters filters,
+                            @RequestParam(required = false) String cursor,
+                            @RequestParam(required = false) Integer size) {
+        return eventService.search(filters, cursor, size);
+    }
+
+    @GetMapping(value = "/all", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> findAll() {
+        return ResponseEntity
+                .ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(outputStream -> writeEvents(outputStream, false));
+    }
+
+    @GetMapping(value = "/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        return ResponseEntity
+                .ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(outputStream -> writeEvents(outputStream, true));
+    }
+
+    private void writeEvents(OutputStream outputStream, boolean ndjson) throws IOException {
+        var writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (var generator = objectMapper.createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(NDJSON_SEPARATOR);
+            if (!ndjson) {
+                generator.writeStartArray();
+            }
+            eventService.streamAll(chunk -> {
+                try {
+                    for (var event : chunk) {
+                        writer.writeValue(generator, event);
+                    }
+                    generator.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (ndjson) {
+                generator.writeRaw('\n');
+            } else {
+                generator.writeEndArray();
+            }
+        }
     }
 }
@@ -1,22 +1,66 @@
 package br.com.microservices.orchestrated.orderservice.core.controller;
 
+import br.com.microservices.orchestrated.orderservice.config.exception.ValidationException;
+import br.com.microservices.orchestrated.orderservice.core.admission.SagaBacklogMonitor;
 import br.com.microservices.orchestrated.orderservice.core.dto.OrderRequest;
+import br.com.microservices.orchestrated.orderservice.core.dto.OrderResponse;
 import br.com.microservices.orchestrated.orderservice.core.service.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
 @RestController
 @AllArgsConstructor
 @RequestMapping("/api/order")
 public class OrderController {
 
     private final OrderService orderService;
+    private final SagaBacklogMonitor sagaBacklogMonitor;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
-    public void createOrder(@RequestBody OrderRequest orderRequest) {
+    public ResponseEntity<Void> createOrder(@RequestBody OrderRequest orderRequest) {
         orderService.createOrder(orderRequest);
+        return ResponseEntity
+                .ok()
+                .header(SagaBacklogMonitor.QUEUE_DEPTH_HEADER, String.valueOf(sagaBacklogMonitor.getBacklog()))
+                .build();
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<OrderResponse>> createOrders(@RequestBody List<OrderRequest> orderRequests) {
+        return ResponseEntity
+                .ok()
+                .header(SagaBacklogMonitor.QUEUE_DEPTH_HEADER, String.valueOf(sagaBacklogMonitor.getBacklog()))
+                .body(orderService.createOrders(orderRequests));
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<List<OrderResponse>> createOrders(InputStream body) {
+        return createOrders(readOrderRequests(body));
+    }
+
+    // fails on the first line past saga.order.batch-max-size instead of buffering the whole body
+    private List<OrderRequest> readOrderRequests(InputStream body) {
+        var orderRequests = new ArrayList<OrderRequest>();
+        try (var lines = objectMapper.readerFor(OrderRequest.class).<OrderRequest>readValues(body)) {
+            while (lines.hasNextValue()) {
+                orderService.checkBatchSize(orderRequests.size() + 1);
+                orderRequests.add(lines.nextValue());
+            }
+        } catch (IOException e) {
+            throw new ValidationException("Orders could not be read.");
+        }
+        return orderRequests;
     }
 }
@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -15,6 +16,12 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Document(collection = "event")
+@CompoundIndex(name = "createdAt_id", def = "{'createdAt': -1, '_id': -1}")
+@CompoundIndex(name = "orderId_createdAt", def = "{'orderId': 1, 'createdAt': -1}")
+@CompoundIndex(name = "transactionId_createdAt", def = "{'transactionId': 1, 'createdAt': -1}")
+@CompoundIndex(name = "status_createdAt_id", def = "{'status': 1, 'createdAt': -1, '_id': -1}")
+@CompoundIndex(name = "source_createdAt_id", def = "{'source': 1, 'createdAt': -1, '_id': -1}")
+@CompoundIndex(name = "productCode_createdAt_id", def = "{'payload.products.product.code': 1, 'createdAt': -1, '_id': -1}")
 public class Event {
 
     @Id
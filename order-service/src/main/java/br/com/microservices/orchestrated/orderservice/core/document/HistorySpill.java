@@ -0,0 +1,28 @@
+package br.com.microservices.orchestrated.orderservice.core.document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "event_history")
+@CompoundIndex(name = "transactionId_createdAt", def = "{'transactionId': 1, 'createdAt': 1}")
+public class HistorySpill {
+
+    @Id
+    private String id;
+    private String transactionId;
+    private String orderId;
+    private List<History> eventHistory;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,26 @@
+package br.com.microservices.orchestrated.orderservice.core.document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "saga_outbox")
+public class SagaOutbox {
+
+    @Id
+    private String id;
+    private String transactionId;
+    private Event event;
+    private LocalDateTime createdAt;
+    private String claim;
+    private LocalDateTime claimedUntil;
+}
@@ -0,0 +1,127 @@
+package br.com.microservices.orchestrated.orderservice.core.outbox;
+
+import br.com.microservices.orchestrated.orderservice.core.document.SagaOutbox;
+import br.com.microservices.orchestrated.orderservice.core.producer.SagaProducer;
+import br.com.microservices.orchestrated.orderservice.core.repository.SagaOutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Publishes the start-saga events written to the outbox together with their orders. Each poll claims the oldest
+ * unclaimed entries under a fresh claim id with a lease of {@code saga.outbox.lease}, so several order-service
+ * instances never relay the same entry at the same time. Claimed entries are sent without waiting on each other
+ * and deleted once the broker acknowledged them; the ones that failed are released for the next poll. An entry
+ * whose relay died keeps its claim until the lease runs out, so an event is published at least once and the
+ * orchestrator drops the duplicates a crash between send and delete leaves.
+ */
+@Slf4j
+@Component
+public class SagaOutboxRelay {
+
+    private static final String ID_FIELD = "id";
+    private static final String CLAIM_FIELD = "claim";
+    private static final String CLAIMED_UNTIL_FIELD = "claimedUntil";
+
+    private final SagaOutboxRepository sagaOutboxRepository;
+    private final MongoTemplate mongoTemplate;
+    private final SagaProducer producer;
+    private final int batchSize;
+    private final long lease;
+
+    public SagaOutboxRelay(SagaOutboxRepository sagaOutboxRepository, MongoTemplate mongoTemplate,
+                           SagaProducer producer,
+                           @Value("${saga.outbox.batch-size}") int batchSize,
+                           @Value("${saga.outbox.lease}") long lease) {
+        this.sagaOutboxRepository = sagaOutboxRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.producer = producer;
+        this.batchSize = batchSize;
+        this.lease = lease;
+    }
+
+    @Scheduled(fixedDelayString = "${saga.outbox.poll-interval}")
+    public void relay() {
+        List<SagaOutbox> batch;
+        do {
+            batch = claimBatch();
+            if (batch.isEmpty() || publish(batch) < batch.size()) {
+                return;
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    // the conditional update claims each entry atomically, so an entry another instance claimed in between is skipped
+    private List<SagaOutbox> claimBatch() {
+        var now = LocalDateTime.now();
+        var candidates = mongoTemplate
+                .find(Query
+                        .query(unclaimed(now))
+                        .with(Sort.by(ID_FIELD))
+                        .limit(batchSize), SagaOutbox.class)
+                .stream()
+                .map(SagaOutbox::getId)
+                .toList();
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        var claim = UUID.randomUUID().toString();
+        mongoTemplate.updateMulti(
+                Query.query(new Criteria().andOperator(where(ID_FIELD).in(candidates), unclaimed(now))),
+                new Update()
+                        .set(CLAIM_FIELD, claim)
+                        .set(CLAIMED_UNTIL_FIELD, now.plusNanos(lease * 1_000_000)),
+                SagaOutbox.class);
+        return mongoTemplate.find(Query
+                .query(where(CLAIM_FIELD).is(claim))
+                .with(Sort.by(ID_FIELD)), SagaOutbox.class);
+    }
+
+    private Criteria unclaimed(LocalDateTime now) {
+        return new Criteria().orOperator(
+                where(CLAIMED_UNTIL_FIELD).is(null),
+                where(CLAIMED_UNTIL_FIELD).lt(now));
+    }
+
+    private int publish(List<SagaOutbox> batch) {
+        var deliveries = batch
+                .stream()
+                .map(entry -> producer.sendEvent(entry.getEvent(), entry.getTransactionId()))
+                .toList();
+        var published = new ArrayList<String>(batch.size());
+        var failed = new ArrayList<String>();
+        for (var index = 0; index < batch.size(); index++) {
+            try {
+                deliveries.get(index).join();
+                published.add(batch.get(index).getId());
+            } catch (CompletionException e) {
+                log.warn("Outbox entry of transactionId {} was not published, retrying on the next poll",
+                        batch.get(index).getTransactionId());
+                failed.add(batch.get(index).getId());
+            }
+        }
+        sagaOutboxRepository.deleteAllById(published);
+        if (!failed.isEmpty()) {
+            mongoTemplate.updateMulti(
+                    Query.query(where(ID_FIELD).in(failed).and(CLAIM_FIELD).is(batch.get(0).getClaim())),
+                    new Update().unset(CLAIM_FIELD).unset(CLAIMED_UNTIL_FIELD),
+                    SagaOutbox.class);
+        }
+        log.debug("Relayed {} of {} outbox entries", published.size(), batch.size());
+        return published.size();
+    }
+}
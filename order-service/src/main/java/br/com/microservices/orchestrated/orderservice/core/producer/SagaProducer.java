@@ -1,27 +1,88 @@
 package br.com.microservices.orchestrated.orderservice.core.producer;
 
-import lombok.RequiredArgsConstructor;
+import br.com.microservices.orchestrated.orderservice.core.document.Event;
+import br.com.microservices.orchestrated.orderservice.core.utils.SagaLogger;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Sends asynchronously and hands the delivery future back to the caller. At most
+ * {@code spring.kafka.producer-max-in-flight} sends may be unacknowledged; past that the caller waits up to
+ * {@code spring.kafka.producer-slot-timeout} for a slot and the send fails if none frees up.
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class SagaProducer {
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final SagaLogger sagaLogger;
+    private final Semaphore inFlight;
+    private final long slotTimeout;
+    private final String startSagaTopic;
+    private final Timer successTimer;
+    private final Timer failureTimer;
 
-    @Value("${spring.kafka.topic.start-saga}")
-    private String startSagaTopic;
+    public SagaProducer(KafkaTemplate<String, Object> kafkaTemplate, MeterRegistry meterRegistry, SagaLogger sagaLogger,
+                        @Value("${spring.kafka.producer-max-in-flight}") int maxInFlight,
+                        @Value("${spring.kafka.producer-slot-timeout}") long slotTimeout,
+                        @Value("${spring.kafka.topic.start-saga}") String startSagaTopic) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.sagaLogger = sagaLogger;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.slotTimeout = slotTimeout;
+        this.startSagaTopic = startSagaTopic;
+        this.successTimer = sendTimer(meterRegistry, startSagaTopic, "success");
+        this.failureTimer = sendTimer(meterRegistry, startSagaTopic, "failure");
+        meterRegistry.gauge("saga.producer.in-flight", inFlight, permits -> maxInFlight - permits.availablePermits());
+    }
 
-    public void sendEvent(String payload) {
-        try{
-            log.info("Sending event to topic {} with data {}", startSagaTopic, payload);
-            kafkaTemplate.send(startSagaTopic, payload);
+    public CompletableFuture<SendResult<String, Object>> sendEvent(Event event, String key) {
+        var start = System.nanoTime();
+        try {
+            if (!inFlight.tryAcquire(slotTimeout, TimeUnit.MILLISECONDS)) {
+                failureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                log.error("No in-flight slot freed up within {} ms to send transactionId {} to topic {}",
+                        slotTimeout, event.getTransactionId(), startSagaTopic);
+                return CompletableFuture.failedFuture(new TimeoutException("No in-flight producer slot available."));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+        try {
+            sagaLogger.sending(startSagaTopic, event);
+            return kafkaTemplate.send(startSagaTopic, key, event).whenComplete((result, ex) -> {
+                inFlight.release();
+                (ex == null ? successTimer : failureTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                if (ex != null) {
+                    log.error("Error trying to send event topic={} transactionId={} source={} status={}",
+                            startSagaTopic, event.getTransactionId(), event.getSource(), event.getStatus(), ex);
+                }
+            });
         } catch (Exception e) {
-            log.error("Error trying to send data to topic {} with data {}", startSagaTopic, payload);
+            inFlight.release();
+            failureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.error("Error trying to send event topic={} transactionId={} source={} status={}",
+                    startSagaTopic, event.getTransactionId(), event.getSource(), event.getStatus(), e);
+            return CompletableFuture.failedFuture(e);
         }
     }
+
+    private static Timer sendTimer(MeterRegistry meterRegistry, String topic, String outcome) {
+        return Timer
+                .builder("saga.producer.send")
+                .tag("topic", topic)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
 }
@@ -0,0 +1,14 @@
+package br.com.microservices.orchestrated.orderservice.core.repository;
+
+import br.com.microservices.orchestrated.orderservice.core.document.HistorySpill;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface HistorySpillRepository extends MongoRepository<HistorySpill, String> {
+
+    List<HistorySpill> findByTransactionIdOrderByCreatedAtAsc(String transactionId);
+
+    List<HistorySpill> findByTransactionIdInOrderByCreatedAtAsc(Collection<String> transactionIds);
+}
@@ -0,0 +1,8 @@
+package br.com.microservices.orchestrated.orderservice.core.repository;
+
+import br.com.microservices.orchestrated.orderservice.core.document.SagaOutbox;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface SagaOutboxRepository extends MongoRepository<SagaOutbox, String> {
+
+}
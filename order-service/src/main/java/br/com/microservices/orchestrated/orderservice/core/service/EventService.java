@@ -2,43 +2,107 @@ package br.com.microservices.orchestrated.orderservice.core.service;
 
 import br.com.microservices.orchestrated.orderservice.config.exception.ValidationException;
 import br.com.microservices.orchestrated.orderservice.core.document.Event;
+import br.com.microservices.orchestrated.orderservice.core.document.History;
+import br.com.microservices.orchestrated.orderservice.core.document.HistorySpill;
 import br.com.microservices.orchestrated.orderservice.core.dto.EventFilters;
+import br.com.microservices.orchestrated.orderservice.core.dto.EventPage;
+import br.com.microservices.orchestrated.orderservice.core.dto.EventSearchFilters;
 import br.com.microservices.orchestrated.orderservice.core.repository.EventRepository;
-import lombok.AllArgsConstructor;
+import br.com.microservices.orchestrated.orderservice.core.repository.HistorySpillRepository;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import static org.springframework.util.ObjectUtils.isEmpty;
 
 @Slf4j
 @Service
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class EventService {
 
+    private static final String CREATED_AT_FIELD = "createdAt";
+    private static final String ID_FIELD = "id";
+    private static final String STATUS_FIELD = "status";
+    private static final String SOURCE_FIELD = "source";
+    private static final String PRODUCT_CODE_FIELD = "payload.products.product.code";
+    private static final String CURSOR_SEPARATOR = "_";
+
     private final EventRepository eventRepository;
+    private final HistorySpillRepository historySpillRepository;
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${saga.event.page-size}")
+    private int defaultPageSize;
+
+    @Value("${saga.event.page-max-size}")
+    private int maxPageSize;
 
     public void notifyEvent(Event event) {
         event.setOrderId(event.getOrderId());
         event.setCreatedAt(LocalDateTime.now());
+        restoreOrder(event);
         save(event);
         log.info("Order {} with saga notified! TransactionId: {}",
                 event.getOrderId(), event.getTransactionId());
     }
+
+    // sagas ended by a step timeout only carry the order id, so the order is taken from the stored event
+    private void restoreOrder(Event event) {
+        if (event.getPayload() != null && !isEmpty(event.getPayload().getProducts())) {
+            return;
+        }
+        eventRepository.findTop1ByTransactionIdOrderByCreatedAtDesc(event.getTransactionId())
+                .ifPresent(stored -> {
+                    event.setPayload(stored.getPayload());
+                    if (isEmpty(event.getId())) {
+                        event.setId(stored.getId());
+                    }
+                });
+    }
+    public void spillHistory(Event event) {
+        historySpillRepository.save(HistorySpill
+                .builder()
+                .transactionId(event.getTransactionId())
+                .orderId(event.getOrderId())
+                .eventHistory(event.getEventHistory())
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
     public Event save(Event event) {
         return eventRepository.save(event);
     }
 
+    public List<Event> saveAll(List<Event> events) {
+        return eventRepository.insert(events);
+    }
+
     public Event findByFilters(EventFilters filters) {
 
         validateEmptyFilters(filters);
 
+        Event event;
         if(!isEmpty(filters.getOrderId())) {
-            return findByOrderId(filters.getOrderId());
+            event = findByOrderId(filters.getOrderId());
         } else {
-            return findByTransactionId(filters.getTransactionId());
+            event = findByTransactionId(filters.getTransactionId());
         }
+        mergeSpilledHistory(event, historySpillRepository.findByTransactionIdOrderByCreatedAtAsc(event.getTransactionId()));
+        return event;
     }
 
     private Event findByOrderId(String orderId) {
@@ -57,7 +121,123 @@ public class EventService {
         }
     }
 
-    public List<Event> findAll() {
-        return eventRepository.findAllByOrderByCreatedAtDesc();
+    public EventPage findPage(String cursor, Integer size) {
+        return search(new EventSearchFilters(), cursor, size);
+    }
+
+    public EventPage search(EventSearchFilters filters, String cursor, Integer size) {
+        var pageSize = size == null ? defaultPageSize : Math.min(Math.max(size, 1), maxPageSize);
+        var events = mongoTemplate.find(searchQuery(filters, cursor).limit(pageSize + 1), Event.class);
+        String nextCursor = null;
+        if (events.size() > pageSize) {
+            events = events.subList(0, pageSize);
+            nextCursor = toCursor(events.get(pageSize - 1));
+        }
+        mergeSpilledHistory(events);
+        return new EventPage(events, nextCursor);
+    }
+
+    /**
+     * Walks the whole collection newest first through a Mongo cursor, handing the events over in chunks of
+     * {@code saga.event.page-max-size} so only one chunk and its spilled history are held in memory.
+     */
+    public void streamAll(Consumer<List<Event>> chunkConsumer) {
+        var query = newestFirst().cursorBatchSize(maxPageSize);
+        try (var events = mongoTemplate.stream(query, Event.class)) {
+            var chunk = new ArrayList<Event>(maxPageSize);
+            var iterator = events.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == maxPageSize || !iterator.hasNext()) {
+                    mergeSpilledHistory(chunk);
+                    chunkConsumer.accept(chunk);
+                    chunk = new ArrayList<>(maxPageSize);
+                }
+            }
+        }
+    }
+
+    Query searchQuery(EventSearchFilters filters, String cursor) {
+        var query = newestFirst();
+        if (!isEmpty(filters.getStatus())) {
+            query.addCriteria(Criteria.where(STATUS_FIELD).is(filters.getStatus()));
+        }
+        if (!isEmpty(filters.getSource())) {
+            query.addCriteria(Criteria.where(SOURCE_FIELD).is(filters.getSource()));
+        }
+        if (!isEmpty(filters.getProductCode())) {
+            query.addCriteria(Criteria.where(PRODUCT_CODE_FIELD).is(filters.getProductCode()));
+        }
+        if (filters.getCreatedFrom() != null || filters.getCreatedTo() != null) {
+            query.addCriteria(createdAtRange(filters.getCreatedFrom(), filters.getCreatedTo()));
+        }
+        if (!isEmpty(cursor)) {
+            query.addCriteria(after(cursor));
+        }
+        return query;
+    }
+
+    private Criteria createdAtRange(LocalDateTime createdFrom, LocalDateTime createdTo) {
+        if (createdFrom != null && createdTo != null && createdFrom.isAfter(createdTo)) {
+            throw new ValidationException("createdFrom must not be after createdTo");
+        }
+        var createdAt = Criteria.where(CREATED_AT_FIELD);
+        if (createdFrom != null) {
+            createdAt.gte(createdFrom);
+        }
+        if (createdTo != null) {
+            createdAt.lt(createdTo);
+        }
+        return createdAt;
+    }
+
+    private Query newestFirst() {
+        return new Query().with(Sort.by(Sort.Direction.DESC, CREATED_AT_FIELD, ID_FIELD));
+    }
+
+    private Criteria after(String cursor) {
+        try {
+            var position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split(CURSOR_SEPARATOR, 2);
+            var createdAt = LocalDateTime.parse(position[0]);
+            var id = new ObjectId(position[1]);
+            return new Criteria().orOperator(
+                    Criteria.where(CREATED_AT_FIELD).lt(createdAt),
+                    Criteria.where(CREATED_AT_FIELD).is(createdAt).and(ID_FIELD).lt(id));
+        } catch (RuntimeException e) {
+            throw new ValidationException("Invalid cursor");
+        }
+    }
+
+    String toCursor(Event event) {
+        var position = event.getCreatedAt().toString().concat(CURSOR_SEPARATOR).concat(event.getId());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void mergeSpilledHistory(List<Event> events) {
+        var spills = historySpillRepository
+                .findByTransactionIdInOrderByCreatedAtAsc(events.stream().map(Event::getTransactionId).toList())
+                .stream()
+                .collect(Collectors.groupingBy(HistorySpill::getTransactionId));
+        events.forEach(event -> mergeSpilledHistory(event, spills.getOrDefault(event.getTransactionId(), List.of())));
+    }
+
+    private void mergeSpilledHistory(Event event, List<HistorySpill> spills) {
+        if (spills.isEmpty()) {
+            return;
+        }
+        var history = new ArrayList<History>();
+        var merged = new ArrayList<List<History>>(spills.size());
+        // parallel branches of a stage spill the same oldest entries
+        spills.forEach(spill -> {
+            if (!merged.contains(spill.getEventHistory())) {
+                merged.add(spill.getEventHistory());
+                history.addAll(spill.getEventHistory());
+            }
+        });
+        if (!isEmpty(event.getEventHistory())) {
+            history.addAll(event.getEventHistory());
+        }
+        event.setEventHistory(history);
     }
 }
@@ -1,55 +1,115 @@
 package br.com.microservices.orchestrated.orderservice.core.service;
 
+import br.com.microservices.orchestrated.orderservice.config.exception.ValidationException;
+import br.com.microservices.orchestrated.orderservice.core.admission.SagaBacklogMonitor;
 import br.com.microservices.orchestrated.orderservice.core.document.Event;
 import br.com.microservices.orchestrated.orderservice.core.document.Order;
+import br.com.microservices.orchestrated.orderservice.core.document.SagaOutbox;
 import br.com.microservices.orchestrated.orderservice.core.dto.OrderRequest;
-import br.com.microservices.orchestrated.orderservice.core.producer.SagaProducer;
+import br.com.microservices.orchestrated.orderservice.core.dto.OrderResponse;
 import br.com.microservices.orchestrated.orderservice.core.repository.OrderRepository;
-import br.com.microservices.orchestrated.orderservice.core.utils.JsonUtil;
-import lombok.AllArgsConstructor;
+import br.com.microservices.orchestrated.orderservice.core.repository.SagaOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
+import static org.springframework.util.ObjectUtils.isEmpty;
+
 @Service
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class OrderService {
 
     private static final String TRANSACTION_ID_PATTERN = "%s-%s";
 
     private final EventService eventService;
-    private final SagaProducer producer;
-    private final JsonUtil jsonUtil;
     private final OrderRepository orderRepository;
+    private final SagaOutboxRepository sagaOutboxRepository;
+    private final SagaBacklogMonitor sagaBacklogMonitor;
+
+    @Value("${saga.order.batch-max-size}")
+    private int maxBatchSize;
 
+    @Transactional
     public Order createOrder(OrderRequest orderRequest) {
-        var order = Order
-                .builder()
-                .products(orderRequest.getProducts())
-                .createdAt(LocalDateTime.now())
-                .transactionId(
-                        String.format(
-                                TRANSACTION_ID_PATTERN,
-                                Instant.now().toEpochMilli(),
-                                UUID.randomUUID()
-                                )
-                ).build();
+        sagaBacklogMonitor.checkAdmission();
+        var order = createOrder(orderRequest, Instant.now().toEpochMilli(), LocalDateTime.now());
         orderRepository.save(order);
-        producer.sendEvent(jsonUtil.toJson(createPlayload(order)));
+        sagaOutboxRepository.save(createOutbox(createPlayload(order)));
         return order;
     }
 
+    @Transactional
+    public List<OrderResponse> createOrders(List<OrderRequest> orderRequests) {
+        validateBatchSize(orderRequests);
+        sagaBacklogMonitor.checkAdmission();
+        var epochMillis = Instant.now().toEpochMilli();
+        var now = LocalDateTime.now();
+        var orders = orderRepository.insert(orderRequests
+                .stream()
+                .map(orderRequest -> createOrder(orderRequest, epochMillis, now))
+                .toList());
+        var events = eventService.saveAll(orders
+                .stream()
+                .map(order -> createEvent(order, now))
+                .toList());
+        sagaOutboxRepository.insert(events
+                .stream()
+                .map(this::createOutbox)
+                .toList());
+        return orders
+                .stream()
+                .map(order -> new OrderResponse(order.getId(), order.getTransactionId()))
+                .toList();
+    }
+
+    public void checkBatchSize(int size) {
+        if (size > maxBatchSize) {
+            throw new ValidationException("A batch accepts at most " + maxBatchSize + " orders");
+        }
+    }
+
+    private void validateBatchSize(List<OrderRequest> orderRequests) {
+        if (isEmpty(orderRequests)) {
+            throw new ValidationException("At least one order must be informed");
+        }
+        checkBatchSize(orderRequests.size());
+    }
+
+    private Order createOrder(OrderRequest orderRequest, long epochMillis, LocalDateTime now) {
+        return Order
+                .builder()
+                .products(orderRequest.getProducts())
+                .createdAt(now)
+                .transactionId(String.format(TRANSACTION_ID_PATTERN, epochMillis, UUID.randomUUID()))
+                .build();
+    }
+
+    private SagaOutbox createOutbox(Event event) {
+        return SagaOutbox
+                .builder()
+                .transactionId(event.getTransactionId())
+                .event(event)
+                .createdAt(event.getCreatedAt())
+                .build();
+    }
+
     private Event createPlayload(Order order) {
-        var event = Event
+        return eventService.save(createEvent(order, LocalDateTime.now()));
+    }
+
+    private Event createEvent(Order order, LocalDateTime now) {
+        return Event
                 .builder()
                 .orderId(order.getId())
                 .payload(order)
                 .transactionId(order.getTransactionId())
-                .createdAt(LocalDateTime.now())
+                .createdAt(now)
                 .build();
-
-        return eventService.save(event);
     }
 }
@@ -0,0 +1,244 @@
+package br.com.microservices.orchestrated.orderservice.core.utils;
+
+import br.com.microservices.orchestrated.orderservice.core.document.Event;
+import br.com.microservices.orchestrated.orderservice.core.document.History;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wire form of the event history: {@code {"t": firstEpochMillis, "e": [[source, status, message, deltaMillis], ...]}}.
+ * Sources and statuses are written as their index in {@link #SOURCES} and {@link #STATUSES}; messages as the index
+ * in {@link #MESSAGES} when they match exactly, as {@code [index, rest]} when they start with one of its prefixes,
+ * or as plain text otherwise. Timestamps are UTC epoch millis relative to the previous entry. The tables are shared
+ * by every service, so entries may only be appended to them. Histories in the legacy list form are still read.
+ */
+public final class CompactHistory {
+
+    static final List<String> SOURCES = List.of(
+            "ORCHESTRATOR",
+            "PRODUCT_VALIDATION_SERVICE",
+            "PAYMENT_SERVICE",
+            "INVENTORY_SERVICE");
+
+    static final List<String> STATUSES = List.of(
+            "SUCCESS",
+            "ROLLBACK_PENDING",
+            "FAIL");
+
+    static final List<String> MESSAGES = List.of(
+            "Saga started!",
+            "Saga finished successfully!",
+            "Saga finished with errors!",
+            "Products are validated successfully!",
+            "Rollback executed on product validation!",
+            "Payment realized successfully!",
+            "Rollback executed for payment!",
+            "Inventory updated successfully!",
+            "Rollback executed for inventory!",
+            "Saga routed to topics ",
+            "Fail to update inventory: ",
+            "Rollback not executed for inventory: ",
+            "Rollback not executed for payment: ",
+            "Fail to realized payment: ",
+            "Fail to validate products: ",
+            "No answer from topic ");
+
+    private static final String BASE_FIELD = "t";
+    private static final String ENTRIES_FIELD = "e";
+
+    private CompactHistory() {
+    }
+
+    public static ObjectMapper register(ObjectMapper objectMapper) {
+        return objectMapper.copy().addMixIn(Event.class, EventMixIn.class);
+    }
+
+    private abstract static class EventMixIn {
+
+        @JsonSerialize(using = Serializer.class)
+        @JsonDeserialize(using = Deserializer.class)
+        private List<History> eventHistory;
+    }
+
+    static final class Serializer extends StdSerializer<List<History>> {
+
+        @SuppressWarnings("unchecked")
+        Serializer() {
+            super((Class<List<History>>) (Class<?>) List.class);
+        }
+
+        @Override
+        public void serialize(List<History> history, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            Long previous = null;
+            generator.writeStartObject();
+            for (var entry : history) {
+                if (entry.getCreatedAt() != null) {
+                    previous = toEpochMillis(entry.getCreatedAt());
+                    generator.writeNumberField(BASE_FIELD, previous);
+                    break;
+                }
+            }
+            generator.writeArrayFieldStart(ENTRIES_FIELD);
+            for (var entry : history) {
+                generator.writeStartArray();
+                writeCode(generator, SOURCES, entry.getSource());
+                writeCode(generator, STATUSES, entry.getStatus());
+                writeMessage(generator, entry.getMessage());
+                if (entry.getCreatedAt() == null) {
+                    generator.writeNull();
+                } else {
+                    var createdAt = toEpochMillis(entry.getCreatedAt());
+                    generator.writeNumber(createdAt - previous);
+                    previous = createdAt;
+                }
+                generator.writeEndArray();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+
+        private static void writeCode(JsonGenerator generator, List<String> table, String value) throws IOException {
+            if (value == null) {
+                generator.writeNull();
+                return;
+            }
+            var code = table.indexOf(value);
+            if (code < 0) {
+                generator.writeString(value);
+            } else {
+                generator.writeNumber(code);
+            }
+        }
+
+        private static void writeMessage(JsonGenerator generator, String message) throws IOException {
+            if (message == null) {
+                generator.writeNull();
+                return;
+            }
+            var prefix = -1;
+            for (var code = 0; code < MESSAGES.size(); code++) {
+                var known = MESSAGES.get(code);
+                if (known.equals(message)) {
+                    generator.writeNumber(code);
+                    return;
+                }
+                if (message.startsWith(known) && (prefix < 0 || known.length() > MESSAGES.get(prefix).length())) {
+                    prefix = code;
+                }
+            }
+            if (prefix < 0) {
+                generator.writeString(message);
+                return;
+            }
+            generator.writeStartArray();
+            generator.writeNumber(prefix);
+            generator.writeString(message.substring(MESSAGES.get(prefix).length()));
+            generator.writeEndArray();
+        }
+    }
+
+    static final class Deserializer extends StdDeserializer<List<History>> {
+
+        private static final TypeReference<List<History>> LEGACY_TYPE = new TypeReference<>() {
+        };
+
+        Deserializer() {
+            super(List.class);
+        }
+
+        @Override
+        public List<History> deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.currentToken() == JsonToken.START_ARRAY) {
+                return parser.readValueAs(LEGACY_TYPE);
+            }
+            Long base = null;
+            var history = new ArrayList<History>();
+            var deltas = new ArrayList<Long>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                var field = parser.currentName();
+                parser.nextToken();
+                if (BASE_FIELD.equals(field)) {
+                    base = parser.getLongValue();
+                } else if (ENTRIES_FIELD.equals(field)) {
+                    while (parser.nextToken() == JsonToken.START_ARRAY) {
+                        parser.nextToken();
+                        var source = readCode(parser, SOURCES);
+                        parser.nextToken();
+                        var status = readCode(parser, STATUSES);
+                        parser.nextToken();
+                        var message = readMessage(parser);
+                        parser.nextToken();
+                        deltas.add(parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.getLongValue());
+                        parser.nextToken();
+                        history.add(History
+                                .builder()
+                                .source(source)
+                                .status(status)
+                                .message(message)
+                                .build());
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            var previous = base;
+            for (var index = 0; index < history.size(); index++) {
+                var delta = deltas.get(index);
+                if (delta != null && previous != null) {
+                    previous += delta;
+                    history.get(index).setCreatedAt(toLocalDate(previous));
+                }
+            }
+            return history;
+        }
+
+        private static String readCode(JsonParser parser, List<String> table) throws IOException {
+            return switch (parser.currentToken()) {
+                case VALUE_NULL -> null;
+                case VALUE_NUMBER_INT -> table.get(parser.getIntValue());
+                default -> parser.getText();
+            };
+        }
+
+        private static String readMessage(JsonParser parser) throws IOException {
+            return switch (parser.currentToken()) {
+                case VALUE_NULL -> null;
+                case VALUE_NUMBER_INT -> MESSAGES.get(parser.getIntValue());
+                case START_ARRAY -> {
+                    parser.nextToken();
+                    var prefix = MESSAGES.get(parser.getIntValue());
+                    parser.nextToken();
+                    var rest = parser.getText();
+                    parser.nextToken();
+                    yield prefix.concat(rest);
+                }
+                default -> parser.getText();
+            };
+        }
+    }
+
+    private static long toEpochMillis(LocalDate createdAt) {
+        return createdAt.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+    }
+
+    private static LocalDate toLocalDate(long epochMillis) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,88 @@
+package br.com.microservices.orchestrated.orderservice.core.utils;
+
+import br.com.microservices.orchestrated.orderservice.config.exception.ValidationException;
+import br.com.microservices.orchestrated.orderservice.core.document.Event;
+import br.com.microservices.orchestrated.orderservice.core.enums.EEventCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes events with the configured codec and stamps the codec and schema version as record headers.
+ * Records without a codec header are read as JSON, so producers that predate the headers keep working.
+ */
+@Slf4j
+@Component
+public class EventCodec {
+
+    public static final String CODEC_HEADER = "saga-codec";
+    public static final String SCHEMA_VERSION_HEADER = "saga-schema-version";
+    public static final int SCHEMA_VERSION = 2;
+
+    private final Map<EEventCodec, ObjectMapper> mappers = new EnumMap<>(EEventCodec.class);
+    private final List<Header> headers;
+
+    @Getter
+    private final EEventCodec codec;
+
+    public EventCodec(ObjectMapper objectMapper, @Value("${spring.kafka.codec}") EEventCodec codec) {
+        var compactMapper = CompactHistory.register(objectMapper);
+        this.codec = codec;
+        this.mappers.put(EEventCodec.JSON, compactMapper);
+        this.mappers.put(EEventCodec.SMILE, compactMapper.copyWith(SmileFactory
+                .builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build()));
+        this.headers = List.of(
+                new RecordHeader(CODEC_HEADER, codec.name().getBytes(StandardCharsets.UTF_8)),
+                new RecordHeader(SCHEMA_VERSION_HEADER, String.valueOf(SCHEMA_VERSION).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public byte[] encode(Object value) {
+        try {
+            return mappers.get(codec).writeValueAsBytes(value);
+        } catch (Exception e) {
+            log.error("Error encoding event with codec {}", codec, e);
+            throw new ValidationException("Event could not be encoded.");
+        }
+    }
+
+    public void writeHeaders(Headers recordHeaders) {
+        recordHeaders.remove(CODEC_HEADER).remove(SCHEMA_VERSION_HEADER);
+        headers.forEach(recordHeaders::add);
+    }
+
+    public Event decode(byte[] payload, Headers recordHeaders) {
+        try {
+            var version = headerValue(recordHeaders, SCHEMA_VERSION_HEADER);
+            if (version != null && Integer.parseInt(version) > SCHEMA_VERSION) {
+                throw new ValidationException("Unsupported event schema version ".concat(version));
+            }
+            var codecName = headerValue(recordHeaders, CODEC_HEADER);
+            var mapper = mappers.get(codecName == null ? EEventCodec.JSON : EEventCodec.valueOf(codecName));
+            return mapper.readValue(payload, Event.class);
+        } catch (ValidationException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error decoding event", e);
+            throw new ValidationException("Event payload could not be read.");
+        }
+    }
+
+    private String headerValue(Headers recordHeaders, String name) {
+        var header = recordHeaders.lastHeader(name);
+        return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,168 @@
+package br.com.microservices.orchestrated.orderservice.core.service;
+
+import br.com.microservices.orchestrated.orderservice.core.document.Event;
+import br.com.microservices.orchestrated.orderservice.core.dto.EventFilters;
+import br.com.microservices.orchestrated.orderservice.core.dto.EventSearchFilters;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every event endpoint operation through {@link EventService} and its repositories, records the find
+ * commands the driver sends, and explains each of them against the indexes created from the document mappings.
+ * Fails when one of them is planned as a collection scan.
+ */
+@DataMongoTest(properties = "spring.data.mongodb.auto-index-creation=true")
+@Import({EventService.class, EventQueryPlanTest.FindCommandRecorder.class})
+@Testcontainers(disabledWithoutDocker = true)
+class EventQueryPlanTest {
+
+    private static final String COLLECTION_SCAN = "COLLSCAN";
+    private static final String ORDER_ID = new ObjectId().toHexString();
+    private static final String TRANSACTION_ID = "query-plan-transaction";
+    private static final LocalDateTime CREATED_AT = LocalDateTime.now();
+
+    @Container
+    @ServiceConnection
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:6.0");
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private FindCommandRecorder findCommandRecorder;
+
+    @BeforeEach
+    void storeEvent() {
+        mongoTemplate.save(storedEvent());
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("eventOperations")
+    void eventQueriesUseAnIndex(String operation, Consumer<EventService> call) {
+        findCommandRecorder.clear();
+        call.accept(eventService);
+        var findCommands = findCommandRecorder.findCommands();
+        assertThat(findCommands).isNotEmpty();
+        findCommands.forEach(find -> assertThat(winningPlan(find)).as(find.toJson()).doesNotContain(COLLECTION_SCAN));
+    }
+
+    static Stream<Arguments> eventOperations() {
+        var createdFrom = CREATED_AT.minusDays(1);
+        var createdTo = CREATED_AT.plusDays(1);
+        return Stream.of(
+                operation("orderId", service -> service.findByFilters(new EventFilters(ORDER_ID, null))),
+                operation("transactionId", service -> service.findByFilters(new EventFilters(null, TRANSACTION_ID))),
+                operation("firstPage", service -> service.findPage(null, null)),
+                operation("nextPage", service -> service.findPage(service.toCursor(storedEvent()), null)),
+                operation("status", service -> service.search(
+                        new EventSearchFilters("SUCCESS", null, null, null, null), cursor(service), null)),
+                operation("source", service -> service.search(
+                        new EventSearchFilters(null, "ORCHESTRATOR", null, null, null), cursor(service), null)),
+                operation("productCode", service -> service.search(
+                        new EventSearchFilters(null, null, "BOOKS", null, null), cursor(service), null)),
+                operation("createdAt", service -> service.search(
+                        new EventSearchFilters(null, null, null, createdFrom, createdTo), cursor(service), null)),
+                operation("allFilters", service -> service.search(
+                        new EventSearchFilters("SUCCESS", "ORCHESTRATOR", "BOOKS", createdFrom, createdTo),
+                        cursor(service), null)),
+                operation("streamAll", service -> service.streamAll(chunk -> { })));
+    }
+
+    private static Arguments operation(String operation, Consumer<EventService> call) {
+        return Arguments.of(operation, call);
+    }
+
+    private static String cursor(EventService service) {
+        return service.toCursor(Event
+                .builder()
+                .id(new ObjectId().toHexString())
+                .createdAt(CREATED_AT.plusDays(2))
+                .build());
+    }
+
+    private static Event storedEvent() {
+        return Event
+                .builder()
+                .id(ORDER_ID)
+                .orderId(ORDER_ID)
+                .transactionId(TRANSACTION_ID)
+                .source("ORCHESTRATOR")
+                .status("SUCCESS")
+                .createdAt(CREATED_AT)
+                .build();
+    }
+
+    private String winningPlan(BsonDocument find) {
+        return mongoTemplate
+                .getDb()
+                .runCommand(new BsonDocument("explain", find).append("verbosity", new BsonString("queryPlanner")))
+                .get("queryPlanner", Document.class)
+                .get("winningPlan", Document.class)
+                .toJson();
+    }
+
+    @TestConfiguration
+    static class FindCommandRecorder implements CommandListener {
+
+        // only the fields that shape the plan; session and cluster-time fields cannot be replayed inside explain
+        private static final List<String> FIND_FIELDS = List.of("find", "filter", "sort", "projection", "skip", "limit", "hint");
+
+        private final List<BsonDocument> findCommands = new CopyOnWriteArrayList<>();
+
+        @Bean
+        MongoClientSettingsBuilderCustomizer findCommandListener() {
+            return settings -> settings.addCommandListener(this);
+        }
+
+        @Override
+        public void commandStarted(CommandStartedEvent event) {
+            if (!"find".equals(event.getCommandName())) {
+                return;
+            }
+            var command = event.getCommand().clone();
+            var find = new BsonDocument();
+            FIND_FIELDS.stream()
+                    .filter(command::containsKey)
+                    .forEach(field -> find.append(field, command.get(field)));
+            findCommands.add(find);
+        }
+
+        void clear() {
+            findCommands.clear();
+        }
+
+        List<BsonDocument> findCommands() {
+            return List.copyOf(findCommands);
+        }
+    }
+}
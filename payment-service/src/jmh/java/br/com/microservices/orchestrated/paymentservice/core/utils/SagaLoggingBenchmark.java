@@ -0,0 +1,160 @@
+package br.com.microservices.orchestrated.paymentservice.core.utils;
+
+import br.com.microservices.orchestrated.paymentservice.core.dto.EventDto;
+import br.com.microservices.orchestrated.paymentservice.core.dto.HistoryDto;
+import br.com.microservices.orchestrated.paymentservice.core.dto.OrderDto;
+import br.com.microservices.orchestrated.paymentservice.core.dto.OrderProductsDto;
+import br.com.microservices.orchestrated.paymentservice.core.dto.ProductDto;
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static br.com.microservices.orchestrated.paymentservice.core.enums.ESagaStatus.SUCCESS;
+
+/**
+ * Logging cost of one consumed and one sent saga event per operation, on three listener threads writing to a
+ * file. {@code FULL_PAYLOAD_SYNC} logs the whole payload on both lines the way the listeners and the producer did
+ * before {@link SagaLogger}; the other modes go through {@link SagaLogger} with the default 1% payload sampling,
+ * once on a plain file appender and once behind the {@code logback-spring.xml} async appender. The figure this
+ * benchmark is for is the log volume: the bytes written and the share of lines dropped per operation are printed
+ * when the trial ends. It does not measure listener throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(3)
+@Fork(1)
+public class SagaLoggingBenchmark {
+
+    private static final String TOPIC = "payment-success";
+    private static final Logger log = LoggerFactory.getLogger(SagaLoggingBenchmark.class);
+
+    public enum LoggingMode {
+        FULL_PAYLOAD_SYNC,
+        KEY_FIELDS_SYNC,
+        KEY_FIELDS_ASYNC
+    }
+
+    @Param
+    private LoggingMode mode;
+
+    private final LongAdder operations = new LongAdder();
+    private LoggerContext context;
+    private Path logFile;
+    private SagaLogger sagaLogger;
+    private EventDto event;
+    private String payload;
+
+    @Setup
+    public void setup() throws Exception {
+        logFile = Files.createTempFile("saga-logging-benchmark", ".log");
+        context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+        var root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(appender());
+        sagaLogger = new SagaLogger(0.01, 512);
+        event = event();
+        payload = Jackson2ObjectMapperBuilder.json().build().writeValueAsString(event);
+    }
+
+    @Benchmark
+    public void receiveAndSend() {
+        if (mode == LoggingMode.FULL_PAYLOAD_SYNC) {
+            log.info("Receiving success event {} from payment-success topic", payload);
+            log.info("Sending event to topic {} with data {}", TOPIC, payload);
+        } else {
+            sagaLogger.receiving(TOPIC, event);
+            sagaLogger.sending(TOPIC, event);
+        }
+        operations.increment();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        context.stop();
+        long logged = operations.sum() * 2;
+        long written;
+        try (var lines = Files.lines(logFile)) {
+            written = lines.count();
+        }
+        System.out.printf("%s: %d operations, %.0f log bytes per operation, %d of %d lines dropped%n",
+                mode, operations.sum(), (double) Files.size(logFile) / operations.sum(), logged - written, logged);
+        Files.delete(logFile);
+    }
+
+    private Appender<ILoggingEvent> appender() {
+        var encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%15.15t] %-40.40logger{39} : %m%n");
+        encoder.start();
+        var file = new FileAppender<ILoggingEvent>();
+        file.setContext(context);
+        file.setFile(logFile.toString());
+        file.setAppend(false);
+        file.setEncoder(encoder);
+        file.start();
+        if (mode != LoggingMode.KEY_FIELDS_ASYNC) {
+            return file;
+        }
+        var async = new AsyncAppender();
+        async.setContext(context);
+        async.setQueueSize(8192);
+        async.setDiscardingThreshold(0);
+        async.setNeverBlock(true);
+        async.setIncludeCallerData(false);
+        async.addAppender(file);
+        async.start();
+        return async;
+    }
+
+    private EventDto event() {
+        var transactionId = UUID.randomUUID().toString();
+        var createdAt = LocalDateTime.now();
+        var history = new ArrayList<HistoryDto>();
+        history.add(new HistoryDto("ORCHESTRATOR", SUCCESS, "Saga started!", createdAt));
+        history.add(new HistoryDto("ORCHESTRATOR", SUCCESS, "Saga routed to topics product-validation-success", createdAt));
+        history.add(new HistoryDto("PRODUCT_VALIDATION_SERVICE", SUCCESS, "Products are validated successfully!", createdAt));
+        history.add(new HistoryDto("ORCHESTRATOR", SUCCESS, "Saga routed to topics payment-success", createdAt));
+        return EventDto
+                .builder()
+                .id(UUID.randomUUID().toString())
+                .transactionId(transactionId)
+                .orderId(transactionId.substring(0, 24))
+                .payload(OrderDto
+                        .builder()
+                        .id(transactionId.substring(0, 24))
+                        .transactionId(transactionId)
+                        .products(List.of(
+                                new OrderProductsDto(new ProductDto("COMIC_BOOKS", 15.50), 3),
+                                new OrderProductsDto(new ProductDto("BOOKS", 9.90), 1)))
+                        .totalAmount(56.40)
+                        .totalItems(4)
+                        .createdAt(createdAt)
+                        .build())
+                .source("PAYMENT_SERVICE")
+                .status(SUCCESS)
+                .eventHistory(history)
+                .createdAt(createdAt)
+                .build();
+    }
+}
@@ -1,38 +1,42 @@
 package br.com.microservices.orchestrated.paymentservice.core.consumer;
 
+import br.com.microservices.orchestrated.paymentservice.core.dto.EventDto;
 import br.com.microservices.orchestrated.paymentservice.core.service.PaymentService;
-import br.com.microservices.orchestrated.paymentservice.core.utils.JsonUtil;
+import br.com.microservices.orchestrated.paymentservice.core.utils.SagaLogger;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 
-@Slf4j
 @Component
 @RequiredArgsConstructor
 public class PaymentConsumer {
 
     private final PaymentService paymentService;
-    private final JsonUtil jsonUtil;
+    private final SagaLogger sagaLogger;
 
 
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
             topics = "${spring.kafka.topic.payment-success}"
     )
-    public void consumeSuccessEvent(String payload) {
-        log.info("Receiving success event {} from payment-success topic", payload);
-        var event = jsonUtil.toEvent(payload);
-        paymentService.realizePayment(event);
+    public void consumeSuccessEvent(EventDto event, @Header(KafkaHeaders.RECEIVED_TOPIC) String topic) {
+        sagaLogger.receiving(topic, event);
+        try {
+            paymentService.realizePayment(event);
+        } catch (DataIntegrityViolationException e) {
+            paymentService.resendPayment(event);
+        }
     }
 
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
             topics = "${spring.kafka.topic.payment-fail}"
     )
-    public void consumeFailEvent(String payload) {
-        log.info("Receiving rollback event {} from payment-fail topic", payload);
-        var event = jsonUtil.toEvent(payload);
+    public void consumeFailEvent(EventDto event, @Header(KafkaHeaders.RECEIVED_TOPIC) String topic) {
+        sagaLogger.receiving(topic, event);
         paymentService.realizedRefund(event);
     }
 
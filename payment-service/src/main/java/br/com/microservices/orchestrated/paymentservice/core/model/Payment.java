@@ -14,7 +14,7 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "payment")
+@Table(name = "payment", uniqueConstraints = @UniqueConstraint(columnNames = {"orderId", "transactionId"}))
 public class Payment {
 
     @Id
@@ -1,27 +1,124 @@
 package br.com.microservices.orchestrated.paymentservice.core.producer;
 
-import lombok.RequiredArgsConstructor;
+import br.com.microservices.orchestrated.paymentservice.core.dto.EventDto;
+import br.com.microservices.orchestrated.paymentservice.core.utils.SagaLogger;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Sends asynchronously and hands the delivery future back to the caller. At most
+ * {@code spring.kafka.producer-max-in-flight} sends may be unacknowledged; past that the caller waits up to
+ * {@code spring.kafka.producer-slot-timeout} for a slot and the send fails if none frees up.
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class KafkaProducer {
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final SagaLogger sagaLogger;
+    private final Semaphore inFlight;
+    private final long slotTimeout;
+    private final String orchestratorTopic;
+    private final String historySpillTopic;
+    private final Map<String, Timer> successTimers;
+    private final Map<String, Timer> failureTimers;
+
+    @Value("${saga.history.max-entries}")
+    private int historyMaxEntries;
+
+    public KafkaProducer(KafkaTemplate<String, Object> kafkaTemplate, MeterRegistry meterRegistry, SagaLogger sagaLogger,
+                         @Value("${spring.kafka.producer-max-in-flight}") int maxInFlight,
+                         @Value("${spring.kafka.producer-slot-timeout}") long slotTimeout,
+                         @Value("${spring.kafka.topic.orchestrator}") String orchestratorTopic,
+                         @Value("${spring.kafka.topic.history-spill}") String historySpillTopic) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.sagaLogger = sagaLogger;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.slotTimeout = slotTimeout;
+        this.orchestratorTopic = orchestratorTopic;
+        this.historySpillTopic = historySpillTopic;
+        this.successTimers = Map.of(
+                orchestratorTopic, sendTimer(meterRegistry, orchestratorTopic, "success"),
+                historySpillTopic, sendTimer(meterRegistry, historySpillTopic, "success"));
+        this.failureTimers = Map.of(
+                orchestratorTopic, sendTimer(meterRegistry, orchestratorTopic, "failure"),
+                historySpillTopic, sendTimer(meterRegistry, historySpillTopic, "failure"));
+        meterRegistry.gauge("saga.producer.in-flight", inFlight, permits -> maxInFlight - permits.availablePermits());
+    }
 
-    @Value("${spring.kafka.topic.orchestrator}")
-    private String orchestratorTopic;
+    public CompletableFuture<SendResult<String, Object>> sendEvent(EventDto event, String key) {
+        var spill = spillHistory(event);
+        sagaLogger.sending(orchestratorTopic, event);
+        var delivery = send(orchestratorTopic, key, event);
+        return spill == null ? delivery : spill.thenCombine(delivery, (spilled, sent) -> sent);
+    }
 
-    public void sendEvent(String payload) {
-        try{
-            log.info("Sending event to topic {} with data {}", orchestratorTopic, payload);
-            kafkaTemplate.send(orchestratorTopic, payload);
+    private CompletableFuture<SendResult<String, Object>> spillHistory(EventDto event) {
+        var history = event.getEventHistory();
+        if (history == null || history.size() <= historyMaxEntries) {
+            return null;
+        }
+        var overflow = history.subList(0, history.size() - historyMaxEntries);
+        var spill = EventDto
+                .builder()
+                .transactionId(event.getTransactionId())
+                .orderId(event.getOrderId())
+                .eventHistory(new ArrayList<>(overflow))
+                .build();
+        overflow.clear();
+        log.info("Spilling {} history entries of transactionId {} to topic {}",
+                spill.getEventHistory().size(), event.getTransactionId(), historySpillTopic);
+        return send(historySpillTopic, event.getTransactionId(), spill);
+    }
+
+    private CompletableFuture<SendResult<String, Object>> send(String topic, String key, EventDto event) {
+        var start = System.nanoTime();
+        try {
+            if (!inFlight.tryAcquire(slotTimeout, TimeUnit.MILLISECONDS)) {
+                failureTimers.get(topic).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                log.error("No in-flight slot freed up within {} ms to send transactionId {} to topic {}",
+                        slotTimeout, event.getTransactionId(), topic);
+                return CompletableFuture.failedFuture(new TimeoutException("No in-flight producer slot available."));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+        try {
+            return kafkaTemplate.send(topic, key, event).whenComplete((result, ex) -> {
+                inFlight.release();
+                (ex == null ? successTimers : failureTimers).get(topic).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                if (ex != null) {
+                    log.error("Error trying to send event topic={} transactionId={} source={} status={}",
+                            topic, event.getTransactionId(), event.getSource(), event.getStatus(), ex);
+                }
+            });
         } catch (Exception e) {
-            log.error("Error trying to send data to topic {} with data {}", orchestratorTopic, payload);
+            inFlight.release();
+            failureTimers.get(topic).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.error("Error trying to send event topic={} transactionId={} source={} status={}",
+                    topic, event.getTransactionId(), event.getSource(), event.getStatus(), e);
+            return CompletableFuture.failedFuture(e);
         }
     }
+
+    private static Timer sendTimer(MeterRegistry meterRegistry, String topic, String outcome) {
+        return Timer
+                .builder("saga.producer.send")
+                .tag("topic", topic)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
 }
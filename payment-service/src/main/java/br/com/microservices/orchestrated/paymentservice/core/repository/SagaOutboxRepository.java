@@ -0,0 +1,14 @@
+package br.com.microservices.orchestrated.paymentservice.core.repository;
+
+import br.com.microservices.orchestrated.paymentservice.core.model.SagaOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface SagaOutboxRepository extends JpaRepository<SagaOutbox, Long> {
+
+    @Query(value = "SELECT * FROM saga_outbox ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<SagaOutbox> lockBatch(@Param("limit") int limit);
+}
@@ -6,12 +6,14 @@ import br.com.microservices.orchestrated.paymentservice.core.dto.HistoryDto;
 import br.com.microservices.orchestrated.paymentservice.core.dto.OrderProductsDto;
 import br.com.microservices.orchestrated.paymentservice.core.enums.EPaymentStatus;
 import br.com.microservices.orchestrated.paymentservice.core.model.Payment;
-import br.com.microservices.orchestrated.paymentservice.core.producer.KafkaProducer;
+import br.com.microservices.orchestrated.paymentservice.core.outbox.SagaOutboxRelay;
 import br.com.microservices.orchestrated.paymentservice.core.repository.PaymentRepository;
-import br.com.microservices.orchestrated.paymentservice.core.utils.JsonUtil;
-import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 
@@ -19,18 +21,21 @@ import static br.com.microservices.orchestrated.paymentservice.core.enums.ESagaS
 
 @Slf4j
 @Service
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class PaymentService {
 
-    private static final String CURRENT_SOURCE = "PRODUCT_VALIDATION_SERVICE";
+    private static final String CURRENT_SOURCE = "PAYMENT_SERVICE";
 
     private static final Double REDUCE_SUM_VALUE = 0.0;
     private static final Double MIN_AMOUNT_VALUE = 0.1;
 
-    private final JsonUtil jsonUtil;
-    private final KafkaProducer kafkaProducer;
+    private final SagaOutboxRelay sagaOutboxRelay;
     private final PaymentRepository paymentRepository;
 
+    @Value("${spring.kafka.exactly-once}")
+    private boolean exactlyOnce;
+
+    @Transactional
     public void realizePayment(EventDto eventDto) {
         try {
             checkCurrentValidation(eventDto);
@@ -40,13 +45,41 @@ public class PaymentService {
             changePaymentToSuccess(payment);
             handleSuccess(eventDto);
 
+        } catch (DataIntegrityViolationException e) {
+            // the payment is already stored and this transaction is rollback-only, see resendPayment
+            throw e;
         } catch (Exception e) {
             log.error("Error tryning to make payment", e);
             handleFailCurrentNotExecuted(eventDto, e.getMessage());
         }
-        kafkaProducer.sendEvent(jsonUtil.toJson(eventDto));
+        sagaOutboxRelay.add(eventDto);
+    }
+
+    /**
+     * Answers a redelivered event whose payment was already committed, which exactly-once mode detects through
+     * the unique constraint instead of a lookup. The stored outcome is sent again; a refunded payment is dropped
+     * because its saga has already moved past this step.
+     */
+    @Transactional
+    public void resendPayment(EventDto eventDto) {
+        var payment = findByOrderIdAndTransactionId(eventDto);
+        switch (payment.getStatus()) {
+            case SUCCESS -> {
+                setEventAmountItens(eventDto, payment);
+                handleSuccess(eventDto);
+            }
+            case PENDING -> handleFailCurrentNotExecuted(eventDto, "payment was already attempted and not realized");
+            case REFUND -> {
+                log.info("Dropping redelivered payment of transactionId {}, it was already refunded",
+                        eventDto.getTransactionId());
+                return;
+            }
+        }
+        log.info("Resending stored {} payment of transactionId {}", payment.getStatus(), eventDto.getTransactionId());
+        sagaOutboxRelay.add(eventDto);
     }
 
+    @Transactional
     public void realizedRefund(EventDto eventDto) {
         eventDto.setStatus(FAIL);
         eventDto.setSource(CURRENT_SOURCE);
@@ -56,11 +89,11 @@ public class PaymentService {
         } catch (Exception e) {
             addHistory(eventDto, "Rollback not executed for payment: ".concat(e.getMessage()));
         }
-        kafkaProducer.sendEvent(jsonUtil.toJson(eventDto));
+        sagaOutboxRelay.add(eventDto);
     }
 
     private void checkCurrentValidation(EventDto eventDto) {
-        if (paymentRepository.existsByOrderIdAndTransactionId(
+        if (!exactlyOnce && paymentRepository.existsByOrderIdAndTransactionId(
                 eventDto.getPayload().getId(), eventDto.getTransactionId())) {
             throw new ValidationException("There's another transactionId for this validation.");
         }
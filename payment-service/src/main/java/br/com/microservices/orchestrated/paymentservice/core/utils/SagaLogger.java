@@ -0,0 +1,52 @@
+package br.com.microservices.orchestrated.paymentservice.core.utils;
+
+import br.com.microservices.orchestrated.paymentservice.core.dto.EventDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logs one line of key fields per saga event. The payload is only rendered for a
+ * {@code saga.logging.payload-sample-rate} share of the lines and is cut to {@code saga.logging.payload-max-chars}.
+ */
+@Slf4j
+@Component
+public class SagaLogger {
+
+    private final double payloadSampleRate;
+    private final int payloadMaxChars;
+
+    public SagaLogger(@Value("${saga.logging.payload-sample-rate}") double payloadSampleRate,
+                      @Value("${saga.logging.payload-max-chars}") int payloadMaxChars) {
+        this.payloadSampleRate = payloadSampleRate;
+        this.payloadMaxChars = payloadMaxChars;
+    }
+
+    public void receiving(String topic, EventDto event) {
+        log("Receiving", topic, event);
+    }
+
+    public void sending(String topic, EventDto event) {
+        log("Sending", topic, event);
+    }
+
+    private void log(String action, String topic, EventDto event) {
+        if (!log.isInfoEnabled()) {
+            return;
+        }
+        if (payloadSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < payloadSampleRate) {
+            log.info("{} event topic={} transactionId={} source={} status={} payload={}",
+                    action, topic, event.getTransactionId(), event.getSource(), event.getStatus(), truncate(event));
+        } else {
+            log.info("{} event topic={} transactionId={} source={} status={}",
+                    action, topic, event.getTransactionId(), event.getSource(), event.getStatus());
+        }
+    }
+
+    private String truncate(EventDto event) {
+        var payload = String.valueOf(event);
+        return payload.length() <= payloadMaxChars ? payload : payload.substring(0, payloadMaxChars).concat("...");
+    }
+}
@@ -0,0 +1,27 @@
+package br.com.microservices.orchestrated.productvalidationservice.config.kafka;
+
+import br.com.microservices.orchestrated.productvalidationservice.core.dto.EventDto;
+import br.com.microservices.orchestrated.productvalidationservice.core.utils.EventCodec;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+@RequiredArgsConstructor
+public class EventSerializer implements Serializer<EventDto> {
+
+    private final EventCodec eventCodec;
+
+    @Override
+    public byte[] serialize(String topic, EventDto event) {
+        return event == null ? null : eventCodec.encode(event);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, EventDto event) {
+        if (event == null) {
+            return null;
+        }
+        eventCodec.writeHeaders(headers, event);
+        return eventCodec.encode(event);
+    }
+}
@@ -1,27 +1,27 @@
 package br.com.microservices.orchestrated.productvalidationservice.core.consumer;
 
+import br.com.microservices.orchestrated.productvalidationservice.core.dto.EventDto;
 import br.com.microservices.orchestrated.productvalidationservice.core.service.ProductValidationService;
-import br.com.microservices.orchestrated.productvalidationservice.core.utils.JsonUtil;
+import br.com.microservices.orchestrated.productvalidationservice.core.utils.SagaLogger;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 
-@Slf4j
 @Component
 @RequiredArgsConstructor
 public class ProductValidationConsumer {
 
     private  final ProductValidationService productValidationService;
-    private final JsonUtil jsonUtil;;
+    private final SagaLogger sagaLogger;
 
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
             topics = "${spring.kafka.topic.product-validation-success}"
     )
-    public void consumeSuccessEvent(String payload) {
-        log.info("Receiving success event {} from product-validation-success topic", payload);
-        var event = jsonUtil.toEvent(payload);
+    public void consumeSuccessEvent(EventDto event, @Header(KafkaHeaders.RECEIVED_TOPIC) String topic) {
+        sagaLogger.receiving(topic, event);
         productValidationService.validateExistingProducts(event);
     }
 
@@ -29,9 +29,8 @@ public class ProductValidationConsumer {
             groupId = "${spring.kafka.consumer.group-id}",
             topics = "${spring.kafka.topic.product-validation-fail}"
     )
-    public void consumeFailEvent(String payload) {
-        log.info("Receiving rollback event {} from product-validation-fail topic", payload);
-        var event = jsonUtil.toEvent(payload);
+    public void consumeFailEvent(EventDto event, @Header(KafkaHeaders.RECEIVED_TOPIC) String topic) {
+        sagaLogger.receiving(topic, event);
         productValidationService.rollbackEvent(event);
     }
 }
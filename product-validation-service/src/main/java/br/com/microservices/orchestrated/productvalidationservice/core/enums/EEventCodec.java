@@ -0,0 +1,6 @@
+package br.com.microservices.orchestrated.productvalidationservice.core.enums;
+
+public enum EEventCodec {
+    JSON,
+    SMILE
+}
@@ -5,13 +5,14 @@ import br.com.microservices.orchestrated.productvalidationservice.core.dto.Event
 import br.com.microservices.orchestrated.productvalidationservice.core.dto.HistoryDto;
 import br.com.microservices.orchestrated.productvalidationservice.core.dto.OrderProductsDto;
 import br.com.microservices.orchestrated.productvalidationservice.core.model.Validation;
-import br.com.microservices.orchestrated.productvalidationservice.core.producer.KafkaProducer;
+import br.com.microservices.orchestrated.productvalidationservice.core.outbox.SagaOutboxRelay;
 import br.com.microservices.orchestrated.productvalidationservice.core.repository.ProductRepository;
 import br.com.microservices.orchestrated.productvalidationservice.core.repository.ValidationRepository;
-import br.com.microservices.orchestrated.productvalidationservice.core.utils.JsonUtil;
-import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 
@@ -20,16 +21,19 @@ import static org.springframework.util.ObjectUtils.isEmpty;
 
 @Slf4j
 @Service
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class ProductValidationService {
 
     private static final String CURRENT_SOURCE = "PRODUCT_VALIDATION_SERVICE";
 
-    private final JsonUtil jsonUtil;
-    private final KafkaProducer kafkaProducer;
+    private final SagaOutboxRelay sagaOutboxRelay;
     private final ProductRepository productRepository;
     private final ValidationRepository validationRepository;
 
+    @Value("${spring.kafka.exactly-once}")
+    private boolean exactlyOnce;
+
+    @Transactional
     public void validateExistingProducts(EventDto eventDto){
         try{
 
@@ -41,7 +45,7 @@ public class ProductValidationService {
             log.error("Error tryning to validate products", e);
             handleFailCurrentNotExecuted(eventDto, e.getMessage());
         }
-        kafkaProducer.sendEvent(jsonUtil.toJson(eventDto));
+        sagaOutboxRelay.add(eventDto);
     }
 
     private void validateProductsInformed(EventDto eventDto){
@@ -60,7 +64,7 @@ public class ProductValidationService {
     private void checkCurrentValidation(EventDto eventDto){
 
         validateProductsInformed(eventDto);
-        if (validationRepository.existsByOrderIdAndTransactionId(
+        if (!exactlyOnce && validationRepository.existsByOrderIdAndTransactionId(
                 eventDto.getOrderId(), eventDto.getTransactionId())) {
             throw new ValidationException("There's another transactionId for this validation.");
         }
@@ -119,12 +123,13 @@ public class ProductValidationService {
         createValidation(eventDto, false);
     }
 
+    @Transactional
     public void rollbackEvent(EventDto eventDto){
         changeValidationToFail(eventDto);
         eventDto.setStatus(FAIL);
         eventDto.setSource(CURRENT_SOURCE);
         addHistory(eventDto, "Rollback executed on product validation!");
-        kafkaProducer.sendEvent(jsonUtil.toJson(eventDto));
+        sagaOutboxRelay.add(eventDto);
     }
 
     private void changeValidationToFail(EventDto eventDto) {